@@ -0,0 +1,99 @@
+#!/usr/bin/env bash
+#
+# Time-to-first-successful-request for each startup variant, against the
+# local DocumentQueryPort stand-in (no cluster needed).
+#
+# Build the variants first (from the project root):
+#   mvn -B -Paot,cds -Daot.profile=local package     # jvm, aot, cds, aot+cds
+#   mvn -B -Pnative -Daot.profile=local package      # native (GraalVM JDK)
+#
+# Usage: scripts/startup-benchmark.sh [runs]   (default 5)
+#
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+RUNS="${1:-5}"
+PORT="${PORT:-18080}"
+TIMEOUT_S="${TIMEOUT_S:-60}"
+CDS_DIR="$ROOT/target/cds"
+APP_JAR="$(ls "$CDS_DIR"/*-app.jar 2>/dev/null | head -n 1 || true)"
+NATIVE_BIN="$ROOT/target/couchbase-reactive-query"
+MAIN_CLASS="com.github.vadivelmurugesan.couchbase.Application"
+URL="http://localhost:$PORT/api/documents/search"
+BODY='{"type":"user","minAge":20,"maxAge":60}'
+
+APP_ARGS=(
+  "--server.port=$PORT"
+  "--spring.profiles.active=local"
+  "--app.local.dataset=file:$ROOT/couchbase/init/test-data.json"
+)
+
+now_ms() { echo $(( $(date +%s%N) / 1000000 )); }
+
+# Starts the command, polls the search endpoint until it answers 200 and prints the elapsed ms.
+measure() {
+  local start pid code elapsed
+  start=$(now_ms)
+  "$@" > /dev/null 2>&1 &
+  pid=$!
+
+  while true; do
+    code=$(curl -s -o /dev/null -w '%{http_code}' -X POST -H 'Content-Type: application/json' -d "$BODY" "$URL" || true)
+    if [[ "$code" == "200" ]]; then
+      elapsed=$(( $(now_ms) - start ))
+      break
+    fi
+    if ! kill -0 "$pid" 2>/dev/null || (( $(now_ms) - start > TIMEOUT_S * 1000 )); then
+      elapsed=-1
+      break
+    fi
+    sleep 0.01
+  done
+
+  kill "$pid" 2>/dev/null || true
+  wait "$pid" 2>/dev/null || true
+  echo "$elapsed"
+}
+
+run_variant() {
+  local name=$1; shift
+  local samples=() ms
+  for ((i = 1; i <= RUNS; i++)); do
+    ms=$(measure "$@")
+    if [[ "$ms" == "-1" ]]; then
+      printf '%-10s failed (no 200 within %ss)\n' "$name" "$TIMEOUT_S"
+      return
+    fi
+    samples+=("$ms")
+  done
+  local sorted=($(printf '%s\n' "${samples[@]}" | sort -n))
+  printf '%-10s median %6d ms   min %6d ms   max %6d ms   (%s runs)\n' \
+    "$name" "${sorted[$((RUNS / 2))]}" "${sorted[0]}" "${sorted[$((RUNS - 1))]}" "$RUNS"
+}
+
+# CDS requires the same relative classpath the archive was trained with
+cd "$CDS_DIR" 2>/dev/null || true
+CP="$(basename "${APP_JAR:-missing}"):lib/*"
+
+echo "Time to first successful request ($URL)"
+
+if [[ -n "$APP_JAR" ]]; then
+  run_variant jvm java -cp "$CP" "$MAIN_CLASS" "${APP_ARGS[@]}"
+  if [[ -d "$ROOT/target/spring-aot" ]]; then
+    run_variant aot java -Dspring.aot.enabled=true -cp "$CP" "$MAIN_CLASS" "${APP_ARGS[@]}"
+  fi
+  if [[ -f "$CDS_DIR/app.jsa" ]]; then
+    run_variant cds java -XX:SharedArchiveFile=app.jsa -cp "$CP" "$MAIN_CLASS" "${APP_ARGS[@]}"
+    if [[ -d "$ROOT/target/spring-aot" ]]; then
+      run_variant aot+cds java -XX:SharedArchiveFile=app.jsa -Dspring.aot.enabled=true -cp "$CP" "$MAIN_CLASS" "${APP_ARGS[@]}"
+    fi
+  fi
+else
+  echo "skipping JVM variants: build with 'mvn -Paot,cds -Daot.profile=local package'"
+fi
+
+if [[ -x "$NATIVE_BIN" ]]; then
+  run_variant native "$NATIVE_BIN" "${APP_ARGS[@]}"
+else
+  echo "skipping native: build with 'mvn -Pnative -Daot.profile=local package'"
+fi
@@ -1,14 +1,27 @@
 package com.github.vadivelmurugesan.couchbase;
 
 import com.github.vadivelmurugesan.couchbase.config.AppTimeoutProperties;
+import com.github.vadivelmurugesan.couchbase.config.CouchbaseKeyspaceProperties;
+import com.github.vadivelmurugesan.couchbase.config.NativeHints;
+import com.github.vadivelmurugesan.couchbase.config.QueryProfileProperties;
+import com.github.vadivelmurugesan.couchbase.config.RateLimitProperties;
+import com.github.vadivelmurugesan.couchbase.config.SubscriptionProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableConfigurationProperties(AppTimeoutProperties.class)
+@EnableConfigurationProperties({
+        AppTimeoutProperties.class,
+        CouchbaseKeyspaceProperties.class,
+        QueryProfileProperties.class,
+        RateLimitProperties.class,
+        SubscriptionProperties.class
+})
 @EnableScheduling
+@ImportRuntimeHints(NativeHints.class)
 public class Application {
     public static void main(String[] args) {
         SpringApplication.run(Application.class, args);
@@ -0,0 +1,62 @@
+package com.github.vadivelmurugesan.couchbase.adapter.couchbase;
+
+import com.github.vadivelmurugesan.couchbase.config.CouchbaseHaConfig;
+import com.github.vadivelmurugesan.couchbase.config.CouchbaseKeyspaceProperties;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * One keyspace a query is scattered to, with its own timeout and bulkhead.
+ */
+record KeyspaceTarget(String name, String keyspace, Duration timeout, Bulkhead bulkhead) {
+
+    private static final String DEFAULT_NAME = "default";
+    private static final String BULKHEAD_PREFIX = "couchbaseKeyspaceBulkhead-";
+
+    /**
+     * Resolves the configured keyspaces, or the single default keyspace
+     * when none are configured.
+     */
+    static List<KeyspaceTarget> resolve(
+            String defaultKeyspace,
+            Duration defaultTimeout,
+            CouchbaseKeyspaceProperties properties,
+            BulkheadRegistry bulkheadRegistry
+    ) {
+        if (properties.getKeyspaces().isEmpty()) {
+            return List.of(new KeyspaceTarget(DEFAULT_NAME, defaultKeyspace, defaultTimeout,
+                    bulkhead(bulkheadRegistry, DEFAULT_NAME, new CouchbaseKeyspaceProperties.Target().getMaxConcurrentCalls())));
+        }
+
+        // Names key the bulkhead registry; a duplicate would silently share (and resize) one bulkhead
+        Set<String> names = new HashSet<>();
+        return properties.getKeyspaces().stream()
+                .map(t -> {
+                    Objects.requireNonNull(t.getBucket(), "app.couchbase.keyspaces[].bucket must not be null");
+                    String name = t.getName() != null ? t.getName() : t.getBucket() + "." + t.getScope() + "." + t.getCollection();
+                    if (!names.add(name)) {
+                        throw new IllegalArgumentException("Duplicate app.couchbase.keyspaces name: " + name);
+                    }
+                    return new KeyspaceTarget(
+                            name,
+                            CouchbaseHaConfig.toKeyspace(t.getBucket(), t.getScope(), t.getCollection()),
+                            t.getTimeout() != null ? t.getTimeout() : defaultTimeout,
+                            bulkhead(bulkheadRegistry, name, t.getMaxConcurrentCalls()));
+                })
+                .toList();
+    }
+
+    private static Bulkhead bulkhead(BulkheadRegistry registry, String name, int maxConcurrentCalls) {
+        return registry.bulkhead(BULKHEAD_PREFIX + name, BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+    }
+}
@@ -14,6 +14,9 @@ import java.util.Objects;
  */
 public final class N1qlQueryBuilder {
 
+    /** Maximum rows returned per keyspace and per merged result. */
+    public static final int RESULT_LIMIT = 2;
+
     private N1qlQueryBuilder() {
         // Utility class
     }
@@ -32,10 +35,12 @@ public final class N1qlQueryBuilder {
                 ? "WHERE 1=1"
                 : "WHERE " + String.join(" AND ", predicates);
 
-        return "SELECT META(d).id AS id, d.type, d.name, d.age, d.tags " +
+        // cas lets live queries detect changed rows by id + CAS
+        return "SELECT META(d).id AS id, META(d).cas AS cas, d.type, d.name, d.age, d.tags " +
                 "FROM " + keyspace + " AS d " +
                 where + " " +
-                "LIMIT 2";
+                orderBy(c) +
+                "LIMIT " + RESULT_LIMIT;
     }
 
     /**
@@ -62,6 +67,25 @@ public final class N1qlQueryBuilder {
     // Internal Helpers
     // ---------------------------------------------
 
+    /**
+     * ORDER BY clause matching {@link RowComparator}; META(d).id breaks ties
+     * so every keyspace returns rows in a total order the merge can rely on.
+     */
+    private static String orderBy(DocumentCriteria c) {
+        if (!c.isOrdered()) {
+            return "";
+        }
+        if (!DocumentCriteria.SORTABLE_FIELDS.contains(c.getOrderBy())) {
+            throw new IllegalArgumentException("Unsupported orderBy field: " + c.getOrderBy());
+        }
+        String dir = c.isDescending() ? "DESC" : "ASC";
+        if ("id".equals(c.getOrderBy())) {
+            // Already a total order, no tie-breaker needed
+            return "ORDER BY META(d).id " + dir + " ";
+        }
+        return "ORDER BY d." + c.getOrderBy() + " " + dir + ", META(d).id " + dir + " ";
+    }
+
     private static List<String> collectPredicates(DocumentCriteria c) {
         List<String> predicates = new ArrayList<>();
 
@@ -0,0 +1,13 @@
+package com.github.vadivelmurugesan.couchbase.adapter.couchbase;
+
+import com.github.vadivelmurugesan.couchbase.domain.model.Deadline;
+import com.github.vadivelmurugesan.couchbase.domain.model.QueryShape;
+
+/**
+ * Per-request state threaded through every keyspace and attempt.
+ *
+ * @param shape    query shape (breaker, profiling key)
+ * @param deadline end-to-end request deadline
+ * @param profiled whether attempts run with profile(TIMINGS) + metrics
+ */
+record QueryContext(QueryShape shape, Deadline deadline, boolean profiled) { }
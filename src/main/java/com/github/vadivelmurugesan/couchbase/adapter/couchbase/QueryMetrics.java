@@ -24,19 +24,46 @@ public final class QueryMetrics {
     /** Metric ID for prepared statement fallback. */
     private static final String METRIC_PREPARED_FALLBACK = PREFIX + ".prepared_fallback.count";
 
+    /** Metric ID for failed keyspaces in a scatter-gather query. */
+    private static final String METRIC_KEYSPACE_FAILURE = PREFIX + ".keyspace_failure.count";
+
+    /** Metric ID for queries rejected or cut off by the request deadline. */
+    private static final String METRIC_DEADLINE_EXCEEDED = PREFIX + ".deadline_exceeded.count";
+
+    private final MeterRegistry registry;
     private final Counter preparedFallbackCounter;
+    private final Counter deadlineExceededCounter;
 
     public QueryMetrics(MeterRegistry registry) {
-        Objects.requireNonNull(registry, "MeterRegistry must not be null");
+        this.registry = Objects.requireNonNull(registry, "MeterRegistry must not be null");
 
         // Pre-register counters for better performance and consistency.
         this.preparedFallbackCounter = Counter.builder(METRIC_PREPARED_FALLBACK)
                 .description("Number of times a prepared Couchbase query had to fallback to adhoc execution")
                 .register(registry);
+
+        this.deadlineExceededCounter = Counter.builder(METRIC_DEADLINE_EXCEEDED)
+                .description("Number of Couchbase queries rejected or cut off because the request deadline passed")
+                .register(registry);
     }
 
     /** Increments the counter for prepared query fallback scenarios. */
     public void incrementPreparedFallback() {
         preparedFallbackCounter.increment();
     }
+
+    /** Increments the counter for deadline rejections and expiries. */
+    public void incrementDeadlineExceeded() {
+        deadlineExceededCounter.increment();
+    }
+
+    /** Increments the per-keyspace failure counter (state: TIMEOUT, REJECTED, FAILED). */
+    public void incrementKeyspaceFailure(String keyspace, String state) {
+        Counter.builder(METRIC_KEYSPACE_FAILURE)
+                .description("Number of keyspaces that failed within a scatter-gather Couchbase query")
+                .tag("keyspace", keyspace)
+                .tag("state", state)
+                .register(registry)
+                .increment();
+    }
 }
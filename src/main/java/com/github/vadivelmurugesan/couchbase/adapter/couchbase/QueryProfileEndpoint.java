@@ -0,0 +1,41 @@
+package com.github.vadivelmurugesan.couchbase.adapter.couchbase;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Actuator endpoint ({@code /actuator/queryprofiles}) exposing aggregated
+ * per-shape operator timings and the slow-query log.
+ */
+@Component
+@Endpoint(id = "queryprofiles")
+public class QueryProfileEndpoint {
+
+    private final QueryProfiler profiler;
+
+    public QueryProfileEndpoint(QueryProfiler profiler) {
+        this.profiler = Objects.requireNonNull(profiler, "QueryProfiler must not be null");
+    }
+
+    @ReadOperation
+    public Map<String, Object> profiles() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("shapes", profiler.shapes());
+        body.put("slowQueries", profiler.slowQueries());
+        return body;
+    }
+
+    @ReadOperation
+    public QueryProfiler.ShapeSnapshot shape(@Selector String shape) {
+        return profiler.shapes().stream()
+                .filter(s -> s.shape().equals(shape))
+                .findFirst()
+                .orElse(null);
+    }
+}
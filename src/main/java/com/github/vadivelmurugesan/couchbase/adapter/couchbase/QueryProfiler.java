@@ -0,0 +1,302 @@
+package com.github.vadivelmurugesan.couchbase.adapter.couchbase;
+
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.query.QueryMetaData;
+import com.github.vadivelmurugesan.couchbase.config.QueryProfileProperties;
+import com.github.vadivelmurugesan.couchbase.domain.model.QueryShape;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Adaptive query profiling.
+ *
+ * <p>Decides which queries run with {@code profile(TIMINGS)} + {@code metrics(true)}
+ * (1 in {@code sampleRate}, plus the next queries of any shape recently seen slow),
+ * aggregates server operator timings per {@link QueryShape} in a bounded store,
+ * and keeps a ring buffer of the most recent slow queries.</p>
+ */
+@Component
+public final class QueryProfiler {
+
+    /** Go-style duration parts as returned by the query service, e.g. {@code 1m2.5s}, {@code 312.4µs}. */
+    private static final Pattern DURATION_PART = Pattern.compile("(\\d+(?:\\.\\d+)?)(ns|us|µs|μs|ms|s|m|h)");
+
+    private final QueryProfileProperties properties;
+    private final ConcurrentMap<String, ShapeProfile> shapes = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<SlowQuery> slowLog;
+    private final AtomicLong slowLogNext = new AtomicLong();
+
+    public QueryProfiler(QueryProfileProperties properties) {
+        this.properties = Objects.requireNonNull(properties, "QueryProfileProperties must not be null");
+        this.slowLog = new AtomicReferenceArray<>(Math.max(1, properties.getSlowLogSize()));
+    }
+
+    // ---------------------------------------------------------------------
+    // Sampling
+    // ---------------------------------------------------------------------
+
+    /**
+     * Whether the next query of this shape should be profiled.
+     * A {@code sampleRate} of 0 or less turns random sampling off; slow shapes are still profiled.
+     */
+    public boolean shouldProfile(QueryShape shape) {
+        ShapeProfile p = shapes.get(shape.key());
+        if (p != null && p.takeBoost()) {
+            return true;
+        }
+        int sampleRate = properties.getSampleRate();
+        return sampleRate > 0 && ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+    }
+
+    // ---------------------------------------------------------------------
+    // Recording
+    // ---------------------------------------------------------------------
+
+    /**
+     * Records the client-side elapsed time of one keyspace query.
+     * Slow queries boost profiling for their shape; unprofiled ones go to the slow log as-is.
+     */
+    public void recordExecution(QueryShape shape, String stmt, Duration elapsed, boolean profiled) {
+        ShapeProfile p = shapeProfile(shape);
+        if (p != null) {
+            p.record(elapsed);
+        }
+
+        if (elapsed.compareTo(properties.getSlowThreshold()) >= 0) {
+            if (p != null) {
+                p.boost(properties.getProfileAfterSlow());
+            }
+            if (!profiled) {
+                addSlow(new SlowQuery(Instant.now(), shape.key(), stmt, elapsed.toMillis(), Map.of(), List.of()));
+            }
+        }
+    }
+
+    /**
+     * Aggregates the server profile and metrics of a profiled query.
+     */
+    public void recordProfile(QueryShape shape, String stmt, QueryMetaData metaData) {
+        JsonObject profile = metaData.profile().orElse(null);
+        if (profile == null) {
+            return;
+        }
+
+        Map<String, Long> operatorMicros = new HashMap<>();
+        List<String> indexes = new ArrayList<>();
+        Object timings = profile.get("executionTimings");
+        collectOperators(timings, operatorMicros, indexes);
+
+        ShapeProfile p = shapeProfile(shape);
+        if (p != null) {
+            p.recordProfile(operatorMicros, indexes, timings instanceof JsonObject plan ? plan : null);
+        }
+
+        Duration serverElapsed = metaData.metrics()
+                .map(com.couchbase.client.java.query.QueryMetrics::elapsedTime)
+                .orElse(Duration.ZERO);
+
+        if (serverElapsed.compareTo(properties.getSlowThreshold()) >= 0) {
+            addSlow(new SlowQuery(Instant.now(), shape.key(), stmt, serverElapsed.toMillis(),
+                    toMillis(operatorMicros), List.copyOf(indexes)));
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Snapshot
+    // ---------------------------------------------------------------------
+
+    /** Aggregated per-shape timings, slowest average first. */
+    public List<ShapeSnapshot> shapes() {
+        return shapes.entrySet().stream()
+                .map(e -> e.getValue().snapshot(e.getKey()))
+                .sorted(Comparator.comparingDouble(ShapeSnapshot::avgMs).reversed())
+                .toList();
+    }
+
+    /** Slow-query ring buffer, newest first. */
+    public List<SlowQuery> slowQueries() {
+        int size = slowLog.length();
+        long next = slowLogNext.get();
+        List<SlowQuery> out = new ArrayList<>(size);
+        for (long i = next - 1; i >= 0 && i >= next - size; i--) {
+            SlowQuery q = slowLog.get((int) (i % size));
+            if (q != null) {
+                out.add(q);
+            }
+        }
+        return out;
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal Helpers
+    // ---------------------------------------------------------------------
+
+    /** Bounded: shapes past {@code maxShapes} are not aggregated. */
+    private ShapeProfile shapeProfile(QueryShape shape) {
+        ShapeProfile p = shapes.get(shape.key());
+        if (p != null || shapes.size() >= properties.getMaxShapes()) {
+            return p;
+        }
+        return shapes.computeIfAbsent(shape.key(), k -> new ShapeProfile());
+    }
+
+    private void addSlow(SlowQuery q) {
+        slowLog.set((int) (slowLogNext.getAndIncrement() % slowLog.length()), q);
+    }
+
+    /**
+     * Walks the execution plan summing execTime + servTime per operator
+     * and collecting the indexes used by scan operators.
+     */
+    static void collectOperators(Object node, Map<String, Long> out, List<String> indexes) {
+        if (node instanceof JsonObject o) {
+            if (o.get("#operator") instanceof String op) {
+                if (o.get("#stats") instanceof JsonObject stats) {
+                    out.merge(op, parseMicros(stats.get("execTime")) + parseMicros(stats.get("servTime")), Long::sum);
+                }
+                if (op.contains("Scan") && o.get("index") instanceof String index && !indexes.contains(index)) {
+                    indexes.add(index);
+                }
+            }
+            for (String name : o.getNames()) {
+                collectOperators(o.get(name), out, indexes);
+            }
+        } else if (node instanceof JsonArray a) {
+            for (Object child : a) {
+                collectOperators(child, out, indexes);
+            }
+        }
+    }
+
+    /**
+     * Microseconds in a Go-style duration string; 0 for anything else.
+     */
+    static long parseMicros(Object value) {
+        if (!(value instanceof String s)) {
+            return 0;
+        }
+        double micros = 0;
+        Matcher m = DURATION_PART.matcher(s);
+        while (m.find()) {
+            double n = Double.parseDouble(m.group(1));
+            micros += switch (m.group(2)) {
+                case "ns" -> n / 1_000;
+                case "ms" -> n * 1_000;
+                case "s" -> n * 1_000_000;
+                case "m" -> n * 60_000_000;
+                case "h" -> n * 3_600_000_000d;
+                default -> n; // us / µs
+            };
+        }
+        return (long) micros;
+    }
+
+    private static Map<String, Double> toMillis(Map<String, Long> micros) {
+        Map<String, Double> out = new HashMap<>();
+        micros.forEach((k, v) -> out.put(k, v / 1000.0));
+        return out;
+    }
+
+    /**
+     * Lock-free per-shape aggregate.
+     */
+    private static final class ShapeProfile {
+
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder totalMicros = new LongAdder();
+        private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+        private final LongAdder profiled = new LongAdder();
+        private final ConcurrentMap<String, LongAdder> operatorMicros = new ConcurrentHashMap<>();
+        private final AtomicInteger boost = new AtomicInteger();
+
+        private volatile List<String> lastIndexes = List.of();
+        private volatile Map<String, Object> lastPlan = Map.of();
+
+        void record(Duration elapsed) {
+            long micros = elapsed.toNanos() / 1_000;
+            executions.increment();
+            totalMicros.add(micros);
+            maxMicros.accumulate(micros);
+        }
+
+        void recordProfile(Map<String, Long> operators, List<String> indexes, JsonObject plan) {
+            profiled.increment();
+            operators.forEach((op, micros) -> operatorMicros.computeIfAbsent(op, k -> new LongAdder()).add(micros));
+            lastIndexes = List.copyOf(indexes);
+            if (plan != null) {
+                lastPlan = plan.toMap();
+            }
+        }
+
+        void boost(int count) {
+            boost.accumulateAndGet(count, Math::max);
+        }
+
+        boolean takeBoost() {
+            return boost.getAndUpdate(v -> v > 0 ? v - 1 : 0) > 0;
+        }
+
+        ShapeSnapshot snapshot(String shape) {
+            long n = executions.sum();
+            long profiledCount = profiled.sum();
+            Map<String, Double> avgOperatorMs = new HashMap<>();
+            if (profiledCount > 0) {
+                operatorMicros.forEach((op, micros) -> avgOperatorMs.put(op, micros.sum() / 1000.0 / profiledCount));
+            }
+            return new ShapeSnapshot(
+                    shape,
+                    n,
+                    profiledCount,
+                    n == 0 ? 0 : totalMicros.sum() / 1000.0 / n,
+                    maxMicros.get() / 1000.0,
+                    avgOperatorMs,
+                    lastIndexes,
+                    lastPlan);
+        }
+    }
+
+    /**
+     * Per-shape timings; operator averages are over profiled queries only.
+     */
+    public record ShapeSnapshot(
+            String shape,
+            long executions,
+            long profiled,
+            double avgMs,
+            double maxMs,
+            Map<String, Double> avgOperatorMs,
+            List<String> lastIndexes,
+            Map<String, Object> lastPlan
+    ) { }
+
+    /**
+     * One slow query; operator timings and indexes are empty when it was not profiled.
+     */
+    public record SlowQuery(
+            Instant at,
+            String shape,
+            String statement,
+            long elapsedMs,
+            Map<String, Double> operatorMs,
+            List<String> indexes
+    ) { }
+}
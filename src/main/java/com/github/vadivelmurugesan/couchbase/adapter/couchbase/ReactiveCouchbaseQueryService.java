@@ -3,70 +3,98 @@ package com.github.vadivelmurugesan.couchbase.adapter.couchbase;
 import com.couchbase.client.core.error.CouchbaseException;
 import com.couchbase.client.core.error.PlanningFailureException;
 import com.couchbase.client.core.error.PreparedStatementFailureException;
+import com.couchbase.client.core.error.TimeoutException;
 import com.couchbase.client.java.Cluster;
 import com.couchbase.client.java.ReactiveCluster;
 import com.couchbase.client.java.json.JsonObject;
 import com.couchbase.client.java.query.QueryOptions;
+import com.couchbase.client.java.query.QueryProfile;
 import com.couchbase.client.java.query.QueryScanConsistency;
 import com.couchbase.client.java.query.ReactiveQueryResult;
 import com.github.vadivelmurugesan.couchbase.config.AppTimeoutProperties;
+import com.github.vadivelmurugesan.couchbase.config.CouchbaseKeyspaceProperties;
+import com.github.vadivelmurugesan.couchbase.domain.DeadlineExceededException;
 import com.github.vadivelmurugesan.couchbase.domain.DocumentQueryPort;
+import com.github.vadivelmurugesan.couchbase.domain.model.Deadline;
 import com.github.vadivelmurugesan.couchbase.domain.model.DocumentCriteria;
+import com.github.vadivelmurugesan.couchbase.domain.model.KeyspaceStatus;
+import com.github.vadivelmurugesan.couchbase.domain.model.QueryShape;
+import com.github.vadivelmurugesan.couchbase.domain.model.SearchResult;
+import com.github.vadivelmurugesan.couchbase.observability.QueryPipelineEvent;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
 import io.github.resilience4j.bulkhead.annotation.Bulkhead;
-import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
 import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * Clean + minimal Couchbase reactive query service.
  * Prepared statement → Adhoc fallback + retry.
- * CircuitBreaker & Bulkhead via annotations only.
+ * Bulkhead via annotation; CircuitBreaker per query shape.
+ * Scatter-gather across configured keyspaces, k-way merged when ordered.
+ * Every attempt is bounded by the request deadline (client + server side).
+ * Sampled / recently-slow shapes run with server profiling (see {@link QueryProfiler}).
+ * Query, keyspace and attempt phases are traced as {@link QueryPipelineEvent}s.
  */
 @Service
+@Profile("!local")
 public final class ReactiveCouchbaseQueryService implements DocumentQueryPort {
 
     private static final Logger log = LoggerFactory.getLogger(ReactiveCouchbaseQueryService.class);
 
-    private static final int SAMPLE_RATE = 1000;
     private static final int MAX_RETRIES = 3;
     private static final Duration RETRY_BASE_DELAY = Duration.ofMillis(50);
-    private static final String CB_NAME = "couchbaseQueryBreaker";
 
     private final ReactiveCluster reactiveCluster;
-    private final String keyspace;
-    private final Duration queryTimeout;
+    private final List<KeyspaceTarget> targets;
+    private final boolean allowPartialResults;
+    private final Duration minRemaining;
+    private final Duration defaultBudget;
     private final QueryMetrics metrics;
+    private final ShapeCircuitBreakers breakers;
+    private final QueryProfiler profiler;
 
     public ReactiveCouchbaseQueryService(
             Cluster cluster,
             String keyspace,
             AppTimeoutProperties timeoutProperties,
+            CouchbaseKeyspaceProperties keyspaceProperties,
             QueryMetrics metrics,
-            CircuitBreakerRegistry cbRegistry
+            ShapeCircuitBreakers breakers,
+            QueryProfiler profiler,
+            BulkheadRegistry bulkheadRegistry
     ) {
         this.reactiveCluster = Objects.requireNonNull(cluster).reactive();
-        this.keyspace = Objects.requireNonNull(keyspace);
         this.metrics = Objects.requireNonNull(metrics);
+        this.breakers = Objects.requireNonNull(breakers);
+        this.profiler = Objects.requireNonNull(profiler);
 
-        this.queryTimeout = Objects.requireNonNull(timeoutProperties).getQuery();
+        Duration queryTimeout = Objects.requireNonNull(timeoutProperties).getQuery();
+        this.minRemaining = timeoutProperties.getMinRemaining();
+        this.defaultBudget = queryTimeout;
 
-        // Optional, lightweight CB logging (not noisy)
-        cbRegistry.circuitBreaker(CB_NAME)
-                .getEventPublisher()
-                .onStateTransition(e ->
-                        log.warn("CircuitBreaker {} -> {}",
-                                e.getStateTransition().getFromState(),
-                                e.getStateTransition().getToState()));
+        this.targets = KeyspaceTarget.resolve(
+                Objects.requireNonNull(keyspace), queryTimeout, keyspaceProperties, bulkheadRegistry);
+        this.allowPartialResults = keyspaceProperties.isAllowPartialResults();
     }
 
     @Override
@@ -75,65 +103,299 @@ public final class ReactiveCouchbaseQueryService implements DocumentQueryPort {
             histogram = true,
             extraTags = {"operation", "findByCriteria"}
     )
-    @CircuitBreaker(name = CB_NAME)
     @Bulkhead(name = "couchbaseQueryBulkhead", type = Bulkhead.Type.SEMAPHORE)
-    public Flux<JsonObject> findByCriteria(DocumentCriteria c) {
+    public Flux<JsonObject> findByCriteria(DocumentCriteria c, Deadline deadline) {
         Objects.requireNonNull(c);
+        Objects.requireNonNull(deadline);
 
-        String stmt = N1qlQueryBuilder.buildStatement(keyspace, c);
+        return Flux.defer(() -> {
+            if (isExhausted(deadline)) {
+                return Flux.error(deadlineExceeded(deadline, "before query"));
+            }
+            QueryContext ctx = newContext(c, deadline);
+            // Flux.timeout(Duration) restarts per row; the deadline bounds the whole stream
+            return scatterGather(c, ctx, status -> { })
+                    .timeout(Mono.delay(deadline.remaining()), row -> Mono.never(),
+                            Flux.error(() -> deadlineExceeded(deadline, "while streaming rows")))
+                    .onErrorMap(ex -> isDeadlineTimeout(ex, deadline), ex -> deadlineExceeded(deadline, "while streaming rows"))
+                    .transformDeferred(CircuitBreakerOperator.of(breakers.forShape(ctx.shape())))
+                    .transform(QueryPipelineEvent.flux("query", ctx.shape().key(), null, 0));
+        });
+    }
+
+    @Override
+    @Timed(
+            value = "couchbase.query.latency",
+            histogram = true,
+            extraTags = {"operation", "findWithStatus"}
+    )
+    @Bulkhead(name = "couchbaseQueryBulkhead", type = Bulkhead.Type.SEMAPHORE)
+    public Mono<SearchResult> findWithStatus(DocumentCriteria c, Deadline deadline) {
+        Objects.requireNonNull(c);
+        Objects.requireNonNull(deadline);
+
+        return Mono.defer(() -> {
+            if (isExhausted(deadline)) {
+                return Mono.error(deadlineExceeded(deadline, "before query"));
+            }
+            QueryContext ctx = newContext(c, deadline);
+            List<KeyspaceStatus> statuses = Collections.synchronizedList(new ArrayList<>());
+            return scatterGather(c, ctx, statuses::add)
+                    .collectList()
+                    .map(rows -> new SearchResult(rows, List.copyOf(statuses)))
+                    .timeout(deadline.remaining(), Mono.error(() -> deadlineExceeded(deadline, "while collecting rows")))
+                    .onErrorMap(ex -> isDeadlineTimeout(ex, deadline), ex -> deadlineExceeded(deadline, "while collecting rows"))
+                    .transformDeferred(CircuitBreakerOperator.of(breakers.forShape(ctx.shape())))
+                    .transform(QueryPipelineEvent.mono("query", ctx.shape().key(), "withStatus"));
+        });
+    }
+
+    private QueryContext newContext(DocumentCriteria c, Deadline deadline) {
+        QueryShape shape = QueryShape.of(c);
+        return new QueryContext(shape, deadline, profiler.shouldProfile(shape));
+    }
+
+    // ---------------------------------------------------------------------
+    // Scatter → per-keyspace timeout/bulkhead → merge
+    // ---------------------------------------------------------------------
+
+    private Flux<JsonObject> scatterGather(DocumentCriteria c, QueryContext ctx, Consumer<KeyspaceStatus> statusSink) {
         JsonObject params = N1qlQueryBuilder.buildParameters(c);
 
-        sampleLogQuery(stmt, c);
+        return Flux.defer(() -> {
+            // Partial results are only returned while at least one keyspace is healthy
+            AtomicInteger failures = new AtomicInteger();
+
+            List<Flux<JsonObject>> branches = new ArrayList<>(targets.size());
+            String stmt = null;
+            for (KeyspaceTarget t : targets) {
+                stmt = N1qlQueryBuilder.buildStatement(t.keyspace(), c);
+                branches.add(queryKeyspace(t, stmt, params, ctx, failures, statusSink));
+            }
+
+            sampleLogQuery(stmt, c, ctx);
+
+            return merge(branches, c, ctx);
+        });
+    }
+
+    /**
+     * Called once per subscription (inside {@link #scatterGather}'s defer).
+     */
+    @SuppressWarnings("unchecked")
+    private Flux<JsonObject> merge(List<Flux<JsonObject>> branches, DocumentCriteria c, QueryContext ctx) {
+        if (branches.size() == 1) {
+            // Already limited server-side; not cancelling keeps profiled metadata
+            return branches.get(0);
+        }
+        // Each keyspace returns rows already ordered → streaming k-way merge
+        Flux<JsonObject> merged = c.isOrdered()
+                ? Flux.mergeComparing(RowComparator.of(c), branches.toArray(new Flux[0]))
+                : Flux.merge(branches);
+
+        if (ctx.profiled()) {
+            // take() would cancel branches before their trailing profile metadata arrives;
+            // drain them instead (each is LIMIT-bounded server-side) and drop the excess rows
+            AtomicInteger emitted = new AtomicInteger();
+            return merged.filter(row -> emitted.getAndIncrement() < N1qlQueryBuilder.RESULT_LIMIT);
+        }
+        return merged.take(N1qlQueryBuilder.RESULT_LIMIT);
+    }
+
+    private Flux<JsonObject> queryKeyspace(
+            KeyspaceTarget t,
+            String stmt,
+            JsonObject params,
+            QueryContext ctx,
+            AtomicInteger failures,
+            Consumer<KeyspaceStatus> statusSink
+    ) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicLong rows = new AtomicLong();
+
+            Flux<JsonObject> attempts = executePrepared(stmt, params, ctx);
+
+            // The request deadline is enforced once, around the merge; a per-keyspace timer is
+            // only needed when the keyspace's own timeout is tighter than what is left of it
+            if (t.timeout().compareTo(ctx.deadline().remaining()) < 0) {
+                attempts = attempts.timeout(t.timeout());
+            }
 
-        return executePrepared(stmt, params)
-                .timeout(queryTimeout);
+            Flux<JsonObject> branch = attempts
+                    .transform(QueryPipelineEvent.permit(
+                            "bulkhead", ctx.shape().key(), t.name(), BulkheadOperator.of(t.bulkhead())))
+                    .transform(QueryPipelineEvent.flux("keyspace", ctx.shape().key(), t.name(), 0))
+                    .doOnNext(r -> rows.incrementAndGet())
+                    .doOnComplete(() -> {
+                        KeyspaceStatus s = status(t, "OK", rows, start, null);
+                        profiler.recordExecution(ctx.shape(), stmt, Duration.ofMillis(s.elapsedMs()), ctx.profiled());
+                        statusSink.accept(s);
+                    })
+                    .doOnCancel(() -> {
+                        // Slow keyspaces cut off by the merge limit or the deadline still feed the profiler
+                        KeyspaceStatus s = status(t, "CANCELLED", rows, start, null);
+                        profiler.recordExecution(ctx.shape(), stmt, Duration.ofMillis(s.elapsedMs()), ctx.profiled());
+                        statusSink.accept(s);
+                    })
+                    .doOnError(ex -> {
+                        KeyspaceStatus s = status(t, classify(ex), rows, start, ex);
+                        metrics.incrementKeyspaceFailure(t.name(), s.state());
+                        profiler.recordExecution(ctx.shape(), stmt, Duration.ofMillis(s.elapsedMs()), ctx.profiled());
+                        statusSink.accept(s);
+                    });
+
+            if (!allowPartialResults || targets.size() == 1) {
+                return branch;
+            }
+
+            return branch.onErrorResume(ex -> {
+                if (failures.incrementAndGet() == targets.size()) {
+                    return Flux.error(ex); // nothing left to return
+                }
+                log.warn("Keyspace {} failed → returning partial results. cause={}", t.name(), ex.toString());
+                return Flux.empty();
+            });
+        });
+    }
+
+    private static KeyspaceStatus status(KeyspaceTarget t, String state, AtomicLong rows, long startNanos, Throwable ex) {
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+        return new KeyspaceStatus(t.name(), state, rows.get(), elapsedMs, ex != null ? ex.toString() : null);
+    }
+
+    private static String classify(Throwable ex) {
+        if (ex instanceof java.util.concurrent.TimeoutException
+                || ex instanceof TimeoutException
+                || ex instanceof DeadlineExceededException) {
+            return "TIMEOUT";
+        }
+        if (ex instanceof BulkheadFullException) {
+            return "REJECTED";
+        }
+        return "FAILED";
     }
 
     // ---------------------------------------------------------------------
     // Prepared → fallback → retry
     // ---------------------------------------------------------------------
 
-    private Flux<JsonObject> executePrepared(String stmt, JsonObject params) {
-        return reactiveCluster.query(
-                        stmt,
-                        QueryOptions.queryOptions()
-                                .adhoc(false)
-                                .parameters(params)
-                                .scanConsistency(QueryScanConsistency.NOT_BOUNDED)
-                )
-                .flatMapMany(ReactiveQueryResult::rowsAsObject)
+    private Flux<JsonObject> executePrepared(String stmt, JsonObject params, QueryContext ctx) {
+        // Attempt numbering spans retries and the adhoc fallback of this keyspace
+        AtomicInteger attempts = new AtomicInteger();
+
+        return attempt(stmt, params, false, ctx, attempts)
 
                 // Fallback to adhoc
                 .onErrorResume(this::isPreparedError,
-                        ex -> retryAdhoc(stmt, params, ex))
+                        ex -> retryAdhoc(stmt, params, ctx, attempts, ex))
 
                 // Retry on transient backend errors
-                .retryWhen(backoffRetrySpec("prepared"));
+                .retryWhen(backoffRetrySpec("prepared", ctx.deadline()));
     }
 
-    private Flux<JsonObject> retryAdhoc(String stmt, JsonObject params, Throwable cause) {
+    private Flux<JsonObject> retryAdhoc(
+            String stmt,
+            JsonObject params,
+            QueryContext ctx,
+            AtomicInteger attempts,
+            Throwable cause
+    ) {
         metrics.incrementPreparedFallback();
         log.warn("Prepared invalid → switching to adhoc. cause={}", cause.toString());
 
-        return reactiveCluster.query(
-                        stmt,
-                        QueryOptions.queryOptions()
-                                .adhoc(true)
-                                .parameters(params)
-                                .scanConsistency(QueryScanConsistency.NOT_BOUNDED)
-                )
-                .flatMapMany(ReactiveQueryResult::rowsAsObject)
-                .retryWhen(backoffRetrySpec("adhoc"));
+        return attempt(stmt, params, true, ctx, attempts)
+                .retryWhen(backoffRetrySpec("adhoc", ctx.deadline()));
+    }
+
+    private Flux<JsonObject> attempt(
+            String stmt,
+            JsonObject params,
+            boolean adhoc,
+            QueryContext ctx,
+            AtomicInteger attempts
+    ) {
+        return Flux.defer(() -> query(stmt, params, adhoc, ctx)
+                .flatMapMany(r -> rows(r, stmt, ctx))
+                .transform(QueryPipelineEvent.flux(
+                        "attempt", ctx.shape().key(), adhoc ? "adhoc" : "prepared", attempts.incrementAndGet())));
+    }
+
+    /**
+     * One attempt, deferred so every (re)subscription passes only the
+     * time left as the server-side query timeout.
+     */
+    private Mono<ReactiveQueryResult> query(String stmt, JsonObject params, boolean adhoc, QueryContext ctx) {
+        return Mono.defer(() -> {
+            if (isExhausted(ctx.deadline())) {
+                return Mono.error(deadlineExceeded(ctx.deadline(), adhoc ? "before adhoc attempt" : "before prepared attempt"));
+            }
+
+            QueryOptions options = QueryOptions.queryOptions()
+                    .adhoc(adhoc)
+                    .parameters(params)
+                    .scanConsistency(QueryScanConsistency.NOT_BOUNDED)
+                    .timeout(ctx.deadline().remaining());
+
+            if (ctx.profiled()) {
+                options.profile(QueryProfile.TIMINGS).metrics(true);
+            }
+
+            return reactiveCluster.query(stmt, options);
+        });
+    }
+
+    /**
+     * Rows of one attempt; for profiled queries the trailing metadata
+     * (plan + operator timings) is handed to the profiler.
+     */
+    private Flux<JsonObject> rows(ReactiveQueryResult result, String stmt, QueryContext ctx) {
+        if (!ctx.profiled()) {
+            return result.rowsAsObject();
+        }
+        return result.rowsAsObject()
+                .concatWith(result.metaData()
+                        .doOnNext(md -> profiler.recordProfile(ctx.shape(), stmt, md))
+                        .then(Mono.empty()));
+    }
+
+    // ---------------------------------------------------------------------
+    // Deadline
+    // ---------------------------------------------------------------------
+
+    private boolean isExhausted(Deadline deadline) {
+        return deadline.remaining().compareTo(minRemaining) < 0;
+    }
+
+    /**
+     * A timeout raised by the SDK (server-side timeout = time left) or a keyspace timer
+     * at the moment the request deadline ran out is the deadline, not a keyspace failure.
+     */
+    private boolean isDeadlineTimeout(Throwable ex, Deadline deadline) {
+        return (ex instanceof java.util.concurrent.TimeoutException || ex instanceof TimeoutException)
+                && isExhausted(deadline);
+    }
+
+    /**
+     * Expiries of budgets shorter than the default say nothing about server health
+     * and are ignored by the shape's circuit breaker.
+     */
+    private DeadlineExceededException deadlineExceeded(Deadline deadline, String where) {
+        metrics.incrementDeadlineExceeded();
+        return new DeadlineExceededException("Request deadline exceeded " + where,
+                deadline.budget().compareTo(defaultBudget) < 0);
     }
 
     // ---------------------------------------------------------------------
     // Retry: exponential backoff + jitter
     // ---------------------------------------------------------------------
 
-    private Retry backoffRetrySpec(String phase) {
+    private Retry backoffRetrySpec(String phase, Deadline deadline) {
         return Retry.backoff(MAX_RETRIES, RETRY_BASE_DELAY)
                 .jitter(0.25)
-                .filter(this::isRetryable)
+                // Don't back off into a deadline that cannot fit another attempt
+                .filter(ex -> isRetryable(ex)
+                        && deadline.remaining().compareTo(RETRY_BASE_DELAY.plus(minRemaining)) > 0)
 
                 .doBeforeRetry(rs -> {
                     long attempt = rs.totalRetries() + 1;
@@ -163,10 +425,12 @@ public final class ReactiveCouchbaseQueryService implements DocumentQueryPort {
     // Sampled Logging
     // ---------------------------------------------------------------------
 
-    private void sampleLogQuery(String stmt, DocumentCriteria c) {
-        if (ThreadLocalRandom.current().nextInt(SAMPLE_RATE) == 0) {
-            log.info("Sampled query: stmt='{}', tags={}, attrKey={}, attrValue={}",
+    private void sampleLogQuery(String stmt, DocumentCriteria c, QueryContext ctx) {
+        if (ctx.profiled()) {
+            log.info("Sampled query: shape={}, stmt='{}', keyspaces={}, tags={}, attrKey={}, attrValue={}",
+                    ctx.shape(),
                     stmt,
+                    targets.size(),
                     c.getTags() != null && !c.getTags().isEmpty(),
                     c.getAttrKey() != null,
                     c.getAttrValue() != null);
@@ -0,0 +1,88 @@
+package com.github.vadivelmurugesan.couchbase.adapter.couchbase;
+
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.json.JsonObject;
+import com.github.vadivelmurugesan.couchbase.domain.model.DocumentCriteria;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * Orders projected rows the same way SQL++ orders them for
+ * {@code ORDER BY d.<field>, META(d).id}, so per-keyspace streams
+ * can be combined with a streaming k-way merge.
+ *
+ * <p>Collation follows SQL++: missing &lt; null &lt; false &lt; true &lt; number
+ * &lt; string (by code point, i.e. UTF-8 byte order) &lt; array &lt; object.
+ * A projected field that is missing in the document is absent from the row.</p>
+ */
+public final class RowComparator implements Comparator<JsonObject> {
+
+    private final String field;
+
+    private RowComparator(String field) {
+        this.field = field;
+    }
+
+    /**
+     * Comparator for the criteria's ordering, already reversed for DESC.
+     */
+    public static Comparator<JsonObject> of(DocumentCriteria c) {
+        Objects.requireNonNull(c.getOrderBy(), "orderBy must not be null");
+        Comparator<JsonObject> cmp = new RowComparator(c.getOrderBy());
+        return c.isDescending() ? cmp.reversed() : cmp;
+    }
+
+    @Override
+    public int compare(JsonObject a, JsonObject b) {
+        int result = compareFields(a, b, field);
+        return result != 0 ? result : compareFields(a, b, "id");
+    }
+
+    private static int compareFields(JsonObject a, JsonObject b, String name) {
+        int rank = Integer.compare(rank(a, name), rank(b, name));
+        if (rank != 0) {
+            return rank;
+        }
+        Object va = a.get(name);
+        Object vb = b.get(name);
+        if (va instanceof Number na) {
+            // + 0.0 folds -0.0 into 0.0, which the query service treats as equal
+            return Double.compare(na.doubleValue() + 0.0d, ((Number) vb).doubleValue() + 0.0d);
+        }
+        if (va instanceof Boolean ba) {
+            return Boolean.compare(ba, (Boolean) vb);
+        }
+        if (va instanceof String sa) {
+            return compareCodePoints(sa, (String) vb);
+        }
+        return 0;
+    }
+
+    private static int rank(JsonObject row, String name) {
+        if (!row.containsKey(name)) return 0;
+        Object v = row.get(name);
+        if (v == null) return 1;
+        if (v instanceof Boolean) return 2;
+        if (v instanceof Number) return 3;
+        if (v instanceof String) return 4;
+        if (v instanceof JsonArray) return 5;
+        return 6;
+    }
+
+    /** String order of the query service; differs from {@link String#compareTo} for surrogate pairs. */
+    private static int compareCodePoints(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int ca = a.codePointAt(i);
+            int cb = b.codePointAt(j);
+            if (ca != cb) {
+                return Integer.compare(ca, cb);
+            }
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+        }
+        return Boolean.compare(i < a.length(), j < b.length());
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.vadivelmurugesan.couchbase.adapter.couchbase;
+
+import com.github.vadivelmurugesan.couchbase.domain.DeadlineExceededException;
+import com.github.vadivelmurugesan.couchbase.domain.model.QueryShape;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.ConfigurationNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Circuit breakers keyed by {@link QueryShape}, so one failing shape
+ * cannot open the breaker for healthy ones.
+ *
+ * <p>Breakers are registered in the resilience4j registry (shared
+ * {@code resilience4j.circuitbreaker.configs.<config>} defaults, per-shape
+ * metrics and {@code /actuator/circuitbreakers}). Being created at runtime,
+ * they are not part of {@code /actuator/health}. The number of shapes is
+ * bounded; shapes beyond the limit share one overflow breaker.</p>
+ *
+ * <p>Deadline expiries of client budgets shorter than the default are not
+ * recorded: one caller sending a tiny {@code X-Request-Timeout-Ms} must not
+ * open the breaker for everyone else using the shape.</p>
+ */
+@Component
+public final class ShapeCircuitBreakers {
+
+    private static final Logger log = LoggerFactory.getLogger(ShapeCircuitBreakers.class);
+
+    /** Breaker name prefix; full name is prefix + shape key. */
+    static final String NAME_PREFIX = "couchbaseQueryBreaker-";
+    private static final String OVERFLOW = "overflow";
+
+    private final CircuitBreakerRegistry registry;
+    private final CircuitBreakerConfig config;
+    private final int maxShapes;
+    private final ConcurrentMap<String, CircuitBreaker> byShape = new ConcurrentHashMap<>();
+
+    public ShapeCircuitBreakers(
+            CircuitBreakerRegistry registry,
+            @Value("${app.query.breaker.config:queryShape}") String configName,
+            @Value("${app.query.breaker.max-shapes:64}") int maxShapes
+    ) {
+        this.registry = Objects.requireNonNull(registry, "CircuitBreakerRegistry must not be null");
+        Objects.requireNonNull(configName);
+
+        CircuitBreakerConfig base = registry.getConfiguration(configName)
+                .orElseThrow(() -> new ConfigurationNotFoundException(configName));
+        this.config = CircuitBreakerConfig.from(base)
+                .ignoreException(base.getIgnoreExceptionPredicate().or(ShapeCircuitBreakers::isShortClientDeadline))
+                .build();
+        this.maxShapes = maxShapes;
+    }
+
+    /**
+     * Breaker for the given shape, created on first use.
+     */
+    public CircuitBreaker forShape(QueryShape shape) {
+        CircuitBreaker cb = byShape.get(shape.key());
+        if (cb != null) {
+            return cb;
+        }
+
+        // Size check is not atomic; the bound may be exceeded by a few concurrent first-timers
+        String key = byShape.size() < maxShapes ? shape.key() : OVERFLOW;
+        return byShape.computeIfAbsent(key, this::create);
+    }
+
+    private CircuitBreaker create(String key) {
+        CircuitBreaker cb = registry.circuitBreaker(NAME_PREFIX + key, config);
+
+        // Optional, lightweight CB logging (not noisy)
+        cb.getEventPublisher()
+                .onStateTransition(e ->
+                        log.warn("CircuitBreaker[{}] {} -> {}",
+                                key,
+                                e.getStateTransition().getFromState(),
+                                e.getStateTransition().getToState()));
+        return cb;
+    }
+
+    private static boolean isShortClientDeadline(Throwable ex) {
+        return ex instanceof DeadlineExceededException d && d.isShortBudget();
+    }
+}
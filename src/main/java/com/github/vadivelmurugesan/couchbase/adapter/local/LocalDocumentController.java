@@ -0,0 +1,38 @@
+package com.github.vadivelmurugesan.couchbase.adapter.local;
+
+import com.couchbase.client.java.json.JsonObject;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Writes to the in-memory documents of the {@code local} profile, so live query
+ * diffing and fan-out can be exercised without a cluster.
+ */
+@RestController
+@Profile("local")
+@RequestMapping("/local/documents")
+public final class LocalDocumentController {
+
+    private final LocalDocumentQueryPort port;
+
+    public LocalDocumentController(LocalDocumentQueryPort port) {
+        this.port = Objects.requireNonNull(port, "LocalDocumentQueryPort must not be null");
+    }
+
+    @PutMapping("/{id}")
+    public Mono<Map<String, Object>> upsert(@PathVariable String id, @RequestBody Map<String, Object> content) {
+        return Mono.fromSupplier(() -> Map.of("id", id, "cas", port.upsert(id, JsonObject.from(content))));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> remove(@PathVariable String id) {
+        return Mono.fromSupplier(() -> port.remove(id)
+                ? ResponseEntity.noContent().<Void>build()
+                : ResponseEntity.notFound().<Void>build());
+    }
+}
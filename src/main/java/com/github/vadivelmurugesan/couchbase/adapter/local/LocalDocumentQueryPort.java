@@ -0,0 +1,177 @@
+package com.github.vadivelmurugesan.couchbase.adapter.local;
+
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.json.JsonObject;
+import com.github.vadivelmurugesan.couchbase.adapter.couchbase.N1qlQueryBuilder;
+import com.github.vadivelmurugesan.couchbase.adapter.couchbase.RowComparator;
+import com.github.vadivelmurugesan.couchbase.domain.DeadlineExceededException;
+import com.github.vadivelmurugesan.couchbase.domain.DocumentQueryPort;
+import com.github.vadivelmurugesan.couchbase.domain.model.Deadline;
+import com.github.vadivelmurugesan.couchbase.domain.model.DocumentCriteria;
+import com.github.vadivelmurugesan.couchbase.domain.model.KeyspaceStatus;
+import com.github.vadivelmurugesan.couchbase.domain.model.SearchResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * In-memory {@link DocumentQueryPort} for the {@code local} profile.
+ *
+ * <p>Evaluates criteria the way {@link N1qlQueryBuilder}'s statement does
+ * (same predicates, ordering and {@code LIMIT}) over documents loaded from
+ * {@code app.local.dataset}, so the API, warm-up, CDS training runs and
+ * startup benchmarks work without a cluster. Documents can be changed with
+ * {@link #upsert} / {@link #remove}, each write bumping the document's CAS,
+ * to exercise live query subscriptions.</p>
+ */
+@Component
+@Profile("local")
+public final class LocalDocumentQueryPort implements DocumentQueryPort {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalDocumentQueryPort.class);
+
+    static final String KEYSPACE = "local";
+
+    private final Map<String, Document> documents = new ConcurrentSkipListMap<>();
+    private final AtomicLong casSequence = new AtomicLong();
+
+    public LocalDocumentQueryPort(@Value("${app.local.dataset:file:couchbase/init/test-data.json}") Resource dataset) {
+        Objects.requireNonNull(dataset, "dataset must not be null");
+        load(dataset);
+    }
+
+    @Override
+    public Flux<JsonObject> findByCriteria(DocumentCriteria c, Deadline deadline) {
+        Objects.requireNonNull(c);
+        Objects.requireNonNull(deadline);
+
+        return Flux.defer(() -> {
+            if (deadline.isExpired()) {
+                return Flux.error(new DeadlineExceededException("Request deadline exceeded before query"));
+            }
+            return Flux.fromIterable(evaluate(c));
+        });
+    }
+
+    @Override
+    public Mono<SearchResult> findWithStatus(DocumentCriteria c, Deadline deadline) {
+        long start = System.nanoTime();
+        return findByCriteria(c, deadline)
+                .collectList()
+                .map(rows -> new SearchResult(rows, List.of(new KeyspaceStatus(
+                        KEYSPACE, "OK", rows.size(), (System.nanoTime() - start) / 1_000_000, null))));
+    }
+
+    // ---------------------------------------------------------------------
+    // Mutations
+    // ---------------------------------------------------------------------
+
+    /**
+     * Creates or replaces a document.
+     *
+     * @return the document's new CAS
+     */
+    public long upsert(String id, JsonObject content) {
+        Objects.requireNonNull(id, "id must not be null");
+        Objects.requireNonNull(content, "content must not be null");
+        long cas = casSequence.incrementAndGet();
+        documents.put(id, new Document(content, cas));
+        return cas;
+    }
+
+    /**
+     * @return whether the document existed
+     */
+    public boolean remove(String id) {
+        return documents.remove(id) != null;
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal Helpers
+    // ---------------------------------------------------------------------
+
+    private List<JsonObject> evaluate(DocumentCriteria c) {
+        Predicate<JsonObject> filter = matches(c);
+        Stream<JsonObject> rows = documents.entrySet().stream()
+                .filter(e -> filter.test(e.getValue().content()))
+                .map(e -> project(e.getKey(), e.getValue()));
+        if (c.isOrdered()) {
+            if (!DocumentCriteria.SORTABLE_FIELDS.contains(c.getOrderBy())) {
+                throw new IllegalArgumentException("Unsupported orderBy field: " + c.getOrderBy());
+            }
+            rows = rows.sorted(RowComparator.of(c));
+        }
+        return rows.limit(N1qlQueryBuilder.RESULT_LIMIT).toList();
+    }
+
+    /** Same predicates as {@link N1qlQueryBuilder#buildStatement(String, DocumentCriteria)}. */
+    private static Predicate<JsonObject> matches(DocumentCriteria c) {
+        return d -> {
+            if (c.getType() != null && !c.getType().equals(d.get("type"))) return false;
+            if (c.getName() != null && !c.getName().equals(d.get("name"))) return false;
+
+            Object age = d.get("age");
+            if (c.getMinAge() != null && !(age instanceof Number n && n.doubleValue() >= c.getMinAge())) return false;
+            if (c.getMaxAge() != null && !(age instanceof Number n && n.doubleValue() <= c.getMaxAge())) return false;
+
+            if (c.getTags() != null && !c.getTags().isEmpty()
+                    && !(d.get("tags") instanceof JsonArray tags && tags.toList().stream().anyMatch(c.getTags()::contains))) {
+                return false;
+            }
+
+            if (c.getAttrKey() != null || c.getAttrValue() != null) {
+                return d.get("attributes") instanceof JsonArray attrs && attrs.toList().stream()
+                        .filter(Map.class::isInstance)
+                        .map(Map.class::cast)
+                        .anyMatch(a -> (c.getAttrKey() == null || c.getAttrKey().equals(a.get("key")))
+                                && (c.getAttrValue() == null || c.getAttrValue().equals(a.get("value"))));
+            }
+            return true;
+        };
+    }
+
+    /** {@code SELECT META(d).id AS id, META(d).cas AS cas, d.type, d.name, d.age, d.tags}; missing fields stay missing. */
+    private static JsonObject project(String id, Document d) {
+        JsonObject row = JsonObject.create().put("id", id).put("cas", d.cas());
+        for (String field : List.of("type", "name", "age", "tags")) {
+            if (d.content().containsKey(field)) {
+                row.put(field, d.content().get(field));
+            }
+        }
+        return row;
+    }
+
+    private void load(Resource dataset) {
+        if (!dataset.exists()) {
+            log.warn("Local dataset {} not found; starting with no documents.", dataset.getDescription());
+            return;
+        }
+        try (InputStream in = dataset.getInputStream()) {
+            JsonArray docs = JsonArray.fromJson(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            for (int i = 0; i < docs.size(); i++) {
+                upsert(String.format("user::%04d", i + 1), docs.getObject(i));
+            }
+            log.info("Loaded {} local documents from {}.", documents.size(), dataset.getDescription());
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unable to read local dataset " + dataset.getDescription(), ex);
+        }
+    }
+
+    private record Document(JsonObject content, long cas) { }
+}
@@ -0,0 +1,228 @@
+package com.github.vadivelmurugesan.couchbase.adapter.web;
+
+import com.github.vadivelmurugesan.couchbase.config.RateLimitProperties;
+import com.github.vadivelmurugesan.couchbase.domain.model.DocumentCriteria;
+import com.github.vadivelmurugesan.couchbase.domain.model.QueryCost;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client, cost-weighted rate limiter for search requests.
+ *
+ * <p>Each client has a GCRA bucket (a token bucket held as one
+ * theoretical-arrival-time {@link AtomicLong}, updated by CAS), charged
+ * by {@link QueryCost}. Buckets live in a bounded map; fully refilled
+ * buckets are evicted since a fresh bucket behaves identically. Clients
+ * beyond the bound share hash-striped overflow buckets.</p>
+ *
+ * <p>The client id comes from a header that callers can set freely, so it
+ * must be set (or stripped) by a trusted gateway. A global bucket, charged
+ * after the client's, caps the aggregate rate however many ids are used.</p>
+ */
+@Component
+public class ClientRateLimiter {
+
+    private static final String METRIC_REJECTED = "search.ratelimit.rejected.count";
+    private static final String METRIC_GLOBAL_REJECTED = "search.ratelimit.global_rejected.count";
+    private static final String ANONYMOUS = "anonymous";
+    private static final String OTHER = "other";
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry registry;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final long globalIntervalNanos;
+    private final long globalBurstNanos;
+
+    private final ConcurrentMap<String, GcraBucket> buckets = new ConcurrentHashMap<>();
+    private final GcraBucket[] overflow;
+    private final GcraBucket global;
+    private final ConcurrentMap<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+    private final Counter globalRejected;
+
+    public ClientRateLimiter(RateLimitProperties properties, MeterRegistry registry) {
+        this.properties = Objects.requireNonNull(properties, "RateLimitProperties must not be null");
+        this.registry = Objects.requireNonNull(registry, "MeterRegistry must not be null");
+
+        // At least 1ns: rates above 1e9/s would otherwise make every request free
+        this.intervalNanos = Math.max(1, TimeUnit.SECONDS.toNanos(1) / properties.getRefillPerSecond());
+        this.burstNanos = intervalNanos * properties.getCapacity();
+        this.globalIntervalNanos = Math.max(1, TimeUnit.SECONDS.toNanos(1) / properties.getGlobalRefillPerSecond());
+        this.globalBurstNanos = globalIntervalNanos * properties.getGlobalCapacity();
+
+        this.overflow = new GcraBucket[Math.max(1, properties.getOverflowStripes())];
+        for (int i = 0; i < overflow.length; i++) {
+            overflow[i] = new GcraBucket(System.nanoTime());
+        }
+        this.global = new GcraBucket(System.nanoTime());
+        this.globalRejected = Counter.builder(METRIC_GLOBAL_REJECTED)
+                .description("Number of search requests rejected by the global rate limit")
+                .register(registry);
+    }
+
+    /**
+     * Charges the request's estimated cost to its client, setting the
+     * standard rate-limit headers; errors with {@link RateLimitExceededException}
+     * when the budget is exhausted.
+     */
+    public Mono<Void> acquire(ServerWebExchange exchange, DocumentCriteria c) {
+        String client = clientId(exchange);
+        int cost = Math.min(QueryCost.estimate(c), properties.getCapacity());
+
+        long costNanos = cost * intervalNanos;
+        long now = System.nanoTime();
+        GcraBucket bucket = bucket(client, now);
+        long debt = bucket.tryAcquire(now, costNanos, burstNanos);
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        headers.set("X-RateLimit-Limit", String.valueOf(properties.getCapacity()));
+        headers.set("X-RateLimit-Cost", String.valueOf(cost));
+
+        if (debt < 0) {
+            // Rejected: -debt is how long until this cost fits
+            long waitNanos = -debt;
+            setBudget(headers, burstNanos - costNanos + waitNanos);
+            rejectedCounter(client).increment();
+            return Mono.error(new RateLimitExceededException("Too many requests, please slow down", Duration.ofNanos(waitNanos)));
+        }
+
+        int globalCost = Math.min(cost, properties.getGlobalCapacity());
+        long globalDebt = global.tryAcquire(now, globalCost * globalIntervalNanos, globalBurstNanos);
+        if (globalDebt < 0) {
+            // Not this client's fault: give its charge back and report its budget without it
+            bucket.refund(costNanos);
+            setBudget(headers, debt - costNanos);
+            globalRejected.increment();
+            return Mono.error(new RateLimitExceededException("Server is busy, please retry later", Duration.ofNanos(-globalDebt)));
+        }
+
+        setBudget(headers, debt);
+        return Mono.empty();
+    }
+
+    /**
+     * Drops buckets that have fully refilled.
+     * A request racing with eviction may charge a dropped bucket once,
+     * which at worst grants that client one extra request.
+     */
+    @Scheduled(fixedDelay = 10_000)
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(b -> b.isIdle(now));
+    }
+
+    /**
+     * The configured client header, else {@code ip:<remote address>}.
+     */
+    public String clientId(ServerWebExchange exchange) {
+        String id = exchange.getRequest().getHeaders().getFirst(properties.getClientHeader());
+        if (id != null && !id.isBlank()) {
+            return id.trim();
+        }
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        return remote != null && remote.getAddress() != null
+                ? "ip:" + remote.getAddress().getHostAddress()
+                : ANONYMOUS;
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal Helpers
+    // ---------------------------------------------------------------------
+
+    private GcraBucket bucket(String client, long now) {
+        GcraBucket b = buckets.get(client);
+        if (b != null) {
+            return b;
+        }
+        if (buckets.size() >= properties.getMaxClients()) {
+            return overflow[Math.floorMod(client.hashCode(), overflow.length)];
+        }
+        return buckets.computeIfAbsent(client, k -> new GcraBucket(now));
+    }
+
+    private Counter rejectedCounter(String client) {
+        // Remote-address clients and clients past the cap share a tag to bound cardinality
+        String tag = client.startsWith("ip:") ? ANONYMOUS : client;
+        Counter counter = rejectedCounters.get(tag);
+        if (counter != null) {
+            return counter;
+        }
+        if (rejectedCounters.size() >= properties.getMaxTaggedClients()) {
+            tag = OTHER;
+        }
+        return rejectedCounters.computeIfAbsent(tag, t -> Counter.builder(METRIC_REJECTED)
+                .description("Number of search requests rejected by the per-client rate limiter")
+                .tag("client", t)
+                .register(registry));
+    }
+
+    /**
+     * Remaining / Reset headers for a client bucket holding {@code debtNanos}.
+     */
+    private void setBudget(HttpHeaders headers, long debtNanos) {
+        headers.set("X-RateLimit-Remaining", String.valueOf(remaining(burstNanos - debtNanos)));
+        headers.set("X-RateLimit-Reset", String.valueOf(ceilSeconds(debtNanos)));
+    }
+
+    private long remaining(long headroomNanos) {
+        return Math.max(0, headroomNanos / intervalNanos);
+    }
+
+    private static long ceilSeconds(long nanos) {
+        return Math.max(0, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Generic cell rate algorithm bucket: lock-free, one CAS per permitted request.
+     */
+    static final class GcraBucket {
+
+        /** Theoretical arrival time on the {@link System#nanoTime()} clock. */
+        private final AtomicLong tat;
+
+        GcraBucket(long now) {
+            this.tat = new AtomicLong(now);
+        }
+
+        /**
+         * @return the bucket's debt after charging ({@code >= 0}), or
+         *         {@code -(wait)} when the cost does not fit within the burst
+         */
+        long tryAcquire(long now, long costNanos, long burstNanos) {
+            for (;;) {
+                long current = tat.get();
+                long base = current - now > 0 ? current : now;
+                long next = base + costNanos;
+                long debt = next - now;
+
+                if (debt > burstNanos) {
+                    return -(debt - burstNanos);
+                }
+                if (tat.compareAndSet(current, next)) {
+                    return debt;
+                }
+            }
+        }
+
+        void refund(long costNanos) {
+            tat.getAndAdd(-costNanos);
+        }
+
+        boolean isIdle(long now) {
+            return tat.get() - now <= 0;
+        }
+    }
+}
@@ -2,16 +2,33 @@ package com.github.vadivelmurugesan.couchbase.adapter.web;
 
 import com.couchbase.client.java.json.JsonArray;
 import com.couchbase.client.java.json.JsonObject;
+import com.github.vadivelmurugesan.couchbase.config.AppTimeoutProperties;
+import com.github.vadivelmurugesan.couchbase.config.SubscriptionProperties;
 import com.github.vadivelmurugesan.couchbase.domain.DocumentQueryPort;
+import com.github.vadivelmurugesan.couchbase.domain.model.Deadline;
 import com.github.vadivelmurugesan.couchbase.domain.model.DocumentCriteria;
 import com.github.vadivelmurugesan.couchbase.domain.model.DocumentResponse;
-import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import com.github.vadivelmurugesan.couchbase.domain.model.KeyspaceStatus;
+import com.github.vadivelmurugesan.couchbase.domain.model.QueryShape;
+import com.github.vadivelmurugesan.couchbase.domain.model.RowChange;
+import com.github.vadivelmurugesan.couchbase.domain.model.SearchResponse;
+import com.github.vadivelmurugesan.couchbase.domain.model.SearchResult;
+import com.github.vadivelmurugesan.couchbase.observability.QueryPipelineEvent;
+import com.github.vadivelmurugesan.couchbase.observability.RowMappingEvent;
+import com.github.vadivelmurugesan.couchbase.subscription.LiveQueryChange;
+import com.github.vadivelmurugesan.couchbase.subscription.LiveQueryRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * Reactive REST controller exposing dynamic Couchbase document queries.
@@ -21,24 +38,150 @@ import java.util.Objects;
 @RequestMapping("/api/documents")
 public final class DocumentQueryController {
 
+    /** Client time budget in milliseconds, measured from request arrival. */
+    static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    /** Set on {@code /search} responses when failed keyspaces were left out. */
+    static final String PARTIAL_HEADER = "X-Partial-Results";
+    static final String FAILED_KEYSPACES_HEADER = "X-Failed-Keyspaces";
+
     private final DocumentQueryPort service;
+    private final ClientRateLimiter rateLimiter;
+    private final LiveQueryRegistry liveQueries;
+    private final Duration defaultBudget;
+    private final Duration maxBudget;
+    private final Duration heartbeat;
 
-    public DocumentQueryController(DocumentQueryPort service) {
+    public DocumentQueryController(
+            DocumentQueryPort service,
+            ClientRateLimiter rateLimiter,
+            LiveQueryRegistry liveQueries,
+            AppTimeoutProperties timeoutProperties,
+            SubscriptionProperties subscriptionProperties
+    ) {
         this.service = Objects.requireNonNull(service, "DocumentQueryPort must not be null");
+        this.rateLimiter = Objects.requireNonNull(rateLimiter, "ClientRateLimiter must not be null");
+        this.liveQueries = Objects.requireNonNull(liveQueries, "LiveQueryRegistry must not be null");
+        this.defaultBudget = timeoutProperties.getQuery();
+        this.maxBudget = timeoutProperties.getRequestMax();
+        this.heartbeat = subscriptionProperties.getHeartbeat();
     }
 
     // ---------------------------------------------------------------------
     // Public API
     // ---------------------------------------------------------------------
 
+    /**
+     * Rows are LIMIT-bounded, so they are collected and written as one value:
+     * partial results can be flagged in {@value #PARTIAL_HEADER} /
+     * {@value #FAILED_KEYSPACES_HEADER} before the body starts, and the response
+     * carries a Content-Length, which {@code server.compression.min-response-size} needs.
+     */
     @PostMapping("/search")
-    @RateLimiter(name = "searchRateLimiter")
-    public Flux<DocumentResponse> search(@RequestBody Mono<DocumentCriteria> criteriaMono) {
+    public Mono<List<DocumentResponse>> search(
+            @RequestBody Mono<DocumentCriteria> criteriaMono,
+            @RequestHeader(name = TIMEOUT_HEADER, required = false) String timeoutHeader,
+            ServerWebExchange exchange
+    ) {
+        Deadline deadline = deadline(timeoutHeader);
+        return criteriaMono
+                .switchIfEmpty(Mono.error(new InvalidCriteriaException("Request body is required")))
+                .flatMap(this::validateCriteria)
+                .flatMap(c -> rateLimit(exchange, c))
+                .flatMap(c -> service.findWithStatus(c, deadline)
+                        .doOnNext(result -> flagPartial(exchange, result))
+                        .flatMapIterable(SearchResult::rows)
+                        .transform(RowMappingEvent.map(QueryShape.of(c).key(), DocumentQueryController::mapRowToResponse))
+                        .collectList())
+                .transform(QueryPipelineEvent.mono("request", null, "search"));
+    }
+
+    /**
+     * Same query as {@link #search(Mono, String, ServerWebExchange)}, collected with per-keyspace status
+     * so callers can tell when results are partial.
+     */
+    @PostMapping("/search/detailed")
+    public Mono<SearchResponse> searchDetailed(
+            @RequestBody Mono<DocumentCriteria> criteriaMono,
+            @RequestHeader(name = TIMEOUT_HEADER, required = false) String timeoutHeader,
+            ServerWebExchange exchange
+    ) {
+        Deadline deadline = deadline(timeoutHeader);
+        return criteriaMono
+                .switchIfEmpty(Mono.error(new InvalidCriteriaException("Request body is required")))
+                .flatMap(this::validateCriteria)
+                .flatMap(c -> rateLimit(exchange, c))
+                .flatMap(c -> service.findWithStatus(c, deadline))
+                .map(DocumentQueryController::mapResultToResponse)
+                .transform(QueryPipelineEvent.mono("request", null, "searchDetailed"));
+    }
+
+    /**
+     * Live query: the current rows as {@code added} events, then {@code added} /
+     * {@code changed} / {@code removed} events as the result set changes.
+     * Charged to the rate limit once, when the subscription is registered.
+     */
+    @PostMapping(path = "/subscriptions", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<RowChange>> subscribe(
+            @RequestBody Mono<DocumentCriteria> criteriaMono,
+            ServerWebExchange exchange
+    ) {
         return criteriaMono
                 .switchIfEmpty(Mono.error(new InvalidCriteriaException("Request body is required")))
                 .flatMap(this::validateCriteria)
-                .flatMapMany(service::findByCriteria)
-                .map(DocumentQueryController::mapRowToResponse);
+                .flatMap(c -> rateLimit(exchange, c))
+                .flatMapMany(c -> liveQueries.subscribe(c, rateLimiter.clientId(exchange))
+                        .map(DocumentQueryController::mapChangeToEvent)
+                        .publish(changes -> Flux.merge(changes, keepAlive().takeUntilOther(changes.ignoreElements()))));
+    }
+
+    private Flux<ServerSentEvent<RowChange>> keepAlive() {
+        return Flux.interval(heartbeat, heartbeat)
+                .map(tick -> ServerSentEvent.<RowChange>builder().comment("keep-alive").build());
+    }
+
+    private static void flagPartial(ServerWebExchange exchange, SearchResult result) {
+        if (!result.isPartial()) {
+            return;
+        }
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        headers.set(PARTIAL_HEADER, "true");
+        headers.set(FAILED_KEYSPACES_HEADER, result.keyspaces().stream()
+                .filter(KeyspaceStatus::isFailure)
+                .map(KeyspaceStatus::keyspace)
+                .collect(Collectors.joining(",")));
+    }
+
+    private Mono<DocumentCriteria> rateLimit(ServerWebExchange exchange, DocumentCriteria c) {
+        return rateLimiter.acquire(exchange, c)
+                .transform(QueryPipelineEvent.mono("rateLimit", QueryShape.of(c).key(), null))
+                .thenReturn(c);
+    }
+
+    // ---------------------------------------------------------------------
+    // Deadline
+    // ---------------------------------------------------------------------
+
+    /**
+     * Deadline from the client's time budget (capped), or the default budget.
+     */
+    Deadline deadline(String timeoutHeader) {
+        if (timeoutHeader == null || timeoutHeader.isBlank()) {
+            return Deadline.after(defaultBudget);
+        }
+
+        long millis;
+        try {
+            millis = Long.parseLong(timeoutHeader.trim());
+        } catch (NumberFormatException ex) {
+            throw new InvalidCriteriaException("Invalid '" + TIMEOUT_HEADER + "' header: must be milliseconds.");
+        }
+        if (millis < 0) {
+            throw new InvalidCriteriaException("Invalid '" + TIMEOUT_HEADER + "' header: must not be negative.");
+        }
+
+        Duration budget = Duration.ofMillis(millis);
+        return Deadline.after(budget.compareTo(maxBudget) > 0 ? maxBudget : budget);
     }
 
     // ---------------------------------------------------------------------
@@ -62,6 +205,18 @@ public final class DocumentQueryController {
             return Mono.error(new InvalidCriteriaException(
                     "Invalid query: 'type' and at least one additional filter are required."));
         }
+
+        if (c.getOrderBy() != null && !DocumentCriteria.SORTABLE_FIELDS.contains(c.getOrderBy())) {
+            return Mono.error(new InvalidCriteriaException(
+                    "Invalid query: 'orderBy' must be one of " + DocumentCriteria.SORTABLE_FIELDS + "."));
+        }
+
+        if (c.getOrderDirection() != null
+                && !"ASC".equalsIgnoreCase(c.getOrderDirection())
+                && !"DESC".equalsIgnoreCase(c.getOrderDirection())) {
+            return Mono.error(new InvalidCriteriaException(
+                    "Invalid query: 'orderDirection' must be ASC or DESC."));
+        }
         return Mono.just(c);
     }
 
@@ -93,6 +248,21 @@ public final class DocumentQueryController {
         return new DocumentResponse(id, type, name, age, tags);
     }
 
+    private static ServerSentEvent<RowChange> mapChangeToEvent(LiveQueryChange change) {
+        String op = change.op().name();
+        DocumentResponse row = change.row() != null ? mapRowToResponse(change.row()) : null;
+        return ServerSentEvent.builder(new RowChange(op, change.id(), row))
+                .event(op.toLowerCase())
+                .build();
+    }
+
+    private static SearchResponse mapResultToResponse(SearchResult result) {
+        List<DocumentResponse> rows = result.rows().stream()
+                .map(DocumentQueryController::mapRowToResponse)
+                .toList();
+        return new SearchResponse(rows, result.keyspaces(), result.isPartial());
+    }
+
     private static void validateSchema(JsonObject row) {
         if (row.containsKey("tags")) {
             if (!(row.get("tags") instanceof JsonArray)) {
@@ -1,14 +1,19 @@
 package com.github.vadivelmurugesan.couchbase.adapter.web;
 
 import com.couchbase.client.core.error.CouchbaseException;
+import com.github.vadivelmurugesan.couchbase.domain.DeadlineExceededException;
+import com.github.vadivelmurugesan.couchbase.domain.SubscriptionLimitException;
 import com.github.vadivelmurugesan.couchbase.domain.model.ApiError;
-import io.github.resilience4j.ratelimiter.RequestNotPermitted;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 
+import java.util.concurrent.TimeoutException;
+
 /**
  * Global reactive exception handler for REST endpoints.
  */
@@ -29,10 +34,34 @@ public class GlobalExceptionHandler {
         return Mono.just(new ApiError("INVALID_SCHEMA", ex.getMessage()));
     }
 
-    @ExceptionHandler(RequestNotPermitted.class)
-    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
-    public Mono<ApiError> handleRateLimit(RequestNotPermitted ex) {
-        return Mono.just(new ApiError("RATE_LIMITED", "Too many requests, please slow down"));
+    @ExceptionHandler(RateLimitExceededException.class)
+    public Mono<ResponseEntity<ApiError>> handleRateLimit(RateLimitExceededException ex) {
+        // Whole seconds, rounded up so a compliant client never retries early
+        long retryAfter = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                .body(new ApiError("RATE_LIMITED", ex.getMessage())));
+    }
+
+    @ExceptionHandler(DeadlineExceededException.class)
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public Mono<ApiError> handleDeadlineExceeded(DeadlineExceededException ex) {
+        return Mono.just(new ApiError("DEADLINE_EXCEEDED", ex.getMessage()));
+    }
+
+    /**
+     * A keyspace or SDK timeout that fired before the request deadline.
+     */
+    @ExceptionHandler({TimeoutException.class, com.couchbase.client.core.error.TimeoutException.class})
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public Mono<ApiError> handleQueryTimeout(Exception ex) {
+        return Mono.just(new ApiError("QUERY_TIMEOUT", "Query timed out"));
+    }
+
+    @ExceptionHandler(SubscriptionLimitException.class)
+    public Mono<ResponseEntity<ApiError>> handleSubscriptionLimit(SubscriptionLimitException ex) {
+        HttpStatus status = ex.isPerClient() ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE;
+        return Mono.just(ResponseEntity.status(status).body(new ApiError("SUBSCRIPTION_LIMIT", ex.getMessage())));
     }
 
     @ExceptionHandler(CouchbaseException.class)
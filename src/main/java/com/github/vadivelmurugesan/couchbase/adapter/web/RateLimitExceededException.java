@@ -0,0 +1,20 @@
+package com.github.vadivelmurugesan.couchbase.adapter.web;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a client has exhausted its rate-limit budget.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.vadivelmurugesan.couchbase.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * Jackson Afterburner for faster (de)serialization, on the JVM only.
+ *
+ * <p>Afterburner generates accessor bytecode at runtime, which a native image
+ * cannot load. Conditions are evaluated at build time under Spring AOT, on a
+ * JVM, so the native profile also sets {@code app.jackson.afterburner=false}
+ * for the AOT processing run.</p>
+ */
+@Configuration
+@Conditional(AfterburnerConfig.OnJvmCondition.class)
+public class AfterburnerConfig {
+
+    static final String ENABLED_PROPERTY = "app.jackson.afterburner";
+
+    @Bean
+    public Module afterburnerModule() {
+        return new AfterburnerModule();
+    }
+
+    /**
+     * Matches outside a native image unless {@value #ENABLED_PROPERTY} is {@code false}.
+     */
+    static final class OnJvmCondition implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return !NativeDetector.inNativeImage()
+                    && context.getEnvironment().getProperty(ENABLED_PROPERTY, Boolean.class, true);
+        }
+    }
+}
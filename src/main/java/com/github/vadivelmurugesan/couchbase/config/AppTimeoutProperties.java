@@ -12,9 +12,20 @@ public class AppTimeoutProperties {
 
     /**
      * Per-call reactive timeout for Couchbase queries.
+     * Also the default request deadline when the client sends none.
      */
     private Duration query = Duration.ofSeconds(3);
 
+    /**
+     * Upper bound on a client-supplied request deadline.
+     */
+    private Duration requestMax = Duration.ofSeconds(10);
+
+    /**
+     * Attempts with less time left than this are rejected instead of sent to the cluster.
+     */
+    private Duration minRemaining = Duration.ofMillis(20);
+
     public Duration getQuery() {
         return query;
     }
@@ -22,4 +33,20 @@ public class AppTimeoutProperties {
     public void setQuery(Duration query) {
         this.query = query;
     }
+
+    public Duration getRequestMax() {
+        return requestMax;
+    }
+
+    public void setRequestMax(Duration requestMax) {
+        this.requestMax = requestMax;
+    }
+
+    public Duration getMinRemaining() {
+        return minRemaining;
+    }
+
+    public void setMinRemaining(Duration minRemaining) {
+        this.minRemaining = minRemaining;
+    }
 }
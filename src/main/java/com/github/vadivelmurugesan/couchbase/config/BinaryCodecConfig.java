@@ -0,0 +1,58 @@
+package com.github.vadivelmurugesan.couchbase.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Compact binary formats for service-to-service callers, selected by
+ * content negotiation ({@code Accept} / {@code Content-Type}):
+ * {@code application/x-jackson-smile} and {@code application/cbor}.
+ *
+ * <p>Mappers are configured by Boot's {@link Jackson2ObjectMapperBuilder}, so the
+ * Afterburner module from {@link AfterburnerConfig} applies to every format. The
+ * builder only {@link Jackson2ObjectMapperBuilder#configure configures} mappers
+ * created here; setting its factory would leak into other users of it.</p>
+ */
+@Configuration
+public class BinaryCodecConfig implements WebFluxConfigurer {
+
+    static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final ObjectMapper smileMapper;
+    private final ObjectMapper cborMapper;
+
+    public BinaryCodecConfig(Jackson2ObjectMapperBuilder builder) {
+        this.smileMapper = new ObjectMapper(new SmileFactory());
+        this.cborMapper = new ObjectMapper(new CBORFactory());
+        builder.configure(smileMapper);
+        builder.configure(cborMapper);
+    }
+
+    ObjectMapper smileMapper() {
+        return smileMapper;
+    }
+
+    ObjectMapper cborMapper() {
+        return cborMapper;
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        ServerCodecConfigurer.ServerDefaultCodecs defaults = configurer.defaultCodecs();
+        defaults.jackson2SmileEncoder(new CollectingEncoder(new Jackson2SmileEncoder(smileMapper, APPLICATION_SMILE)));
+        defaults.jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, APPLICATION_SMILE));
+
+        configurer.customCodecs().register(new CollectingEncoder(new Jackson2CborEncoder(cborMapper, MediaType.APPLICATION_CBOR)));
+        configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+    }
+}
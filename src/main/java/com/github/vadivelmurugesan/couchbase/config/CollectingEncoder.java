@@ -0,0 +1,96 @@
+package com.github.vadivelmurugesan.couchbase.config;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.http.codec.json.AbstractJackson2Encoder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Binary Jackson encoder for {@code Flux} bodies.
+ *
+ * <p>The binary Jackson encoders cannot join a stream into a single
+ * binary array (CBOR rejects streams outright), so multi-value bodies are
+ * collected and written as one {@code List}. Result sets are small
+ * ({@code LIMIT}-bounded), so this costs no meaningful latency.</p>
+ */
+final class CollectingEncoder implements HttpMessageEncoder<Object> {
+
+    private final AbstractJackson2Encoder delegate;
+
+    CollectingEncoder(AbstractJackson2Encoder delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate encoder must not be null");
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        return delegate.canEncode(elementType, mimeType);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(
+            Publisher<?> inputStream,
+            DataBufferFactory bufferFactory,
+            ResolvableType elementType,
+            MimeType mimeType,
+            Map<String, Object> hints
+    ) {
+        if (inputStream instanceof Mono) {
+            return delegate.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+        }
+
+        ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+        return Flux.from(inputStream)
+                .collectList()
+                .map(list -> delegate.encodeValue(list, bufferFactory, listType, mimeType, hints))
+                .flux();
+    }
+
+    @Override
+    public DataBuffer encodeValue(
+            Object value,
+            DataBufferFactory bufferFactory,
+            ResolvableType valueType,
+            MimeType mimeType,
+            Map<String, Object> hints
+    ) {
+        return delegate.encodeValue(value, bufferFactory, valueType, mimeType, hints);
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes() {
+        return delegate.getEncodableMimeTypes();
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes(ResolvableType elementType) {
+        return delegate.getEncodableMimeTypes(elementType);
+    }
+
+    @Override
+    public List<MediaType> getStreamingMediaTypes() {
+        return List.of();
+    }
+
+    @Override
+    public Map<String, Object> getEncodeHints(
+            ResolvableType actualType,
+            ResolvableType elementType,
+            MediaType mediaType,
+            ServerHttpRequest request,
+            ServerHttpResponse response
+    ) {
+        return delegate.getEncodeHints(actualType, elementType, mediaType, request, response);
+    }
+}
@@ -6,11 +6,13 @@ import com.couchbase.client.java.Scope;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 /**
  * Couchbase bucket/scope/collection wiring.
  */
 @Configuration
+@Profile("!local")
 public class CouchbaseHaConfig {
 
     @Value("${app.couchbase.bucket}")
@@ -24,7 +26,13 @@ public class CouchbaseHaConfig {
 
     @Bean
     public String keyspace() {
-        // `bucket`.`scope`.`collection` per Couchbase 7.x SQL++
+        return toKeyspace(bucket, scope, collection);
+    }
+
+    /**
+     * `bucket`.`scope`.`collection` per Couchbase 7.x SQL++
+     */
+    public static String toKeyspace(String bucket, String scope, String collection) {
         return String.format("`%s`.`%s`.`%s`", bucket, scope, collection);
     }
 
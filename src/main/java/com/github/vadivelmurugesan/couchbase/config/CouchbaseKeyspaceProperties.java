@@ -0,0 +1,79 @@
+package com.github.vadivelmurugesan.couchbase.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scatter-gather keyspace configuration.
+ *
+ * <p>When {@code keyspaces} is empty the single
+ * {@code app.couchbase.bucket/scope/collection} keyspace is queried.</p>
+ */
+@ConfigurationProperties(prefix = "app.couchbase")
+public class CouchbaseKeyspaceProperties {
+
+    /**
+     * Keyspaces the same criteria is fanned out to.
+     */
+    private List<Target> keyspaces = new ArrayList<>();
+
+    /**
+     * Whether rows from healthy keyspaces are returned when others fail.
+     */
+    private boolean allowPartialResults = true;
+
+    public List<Target> getKeyspaces() {
+        return keyspaces;
+    }
+
+    public void setKeyspaces(List<Target> keyspaces) {
+        this.keyspaces = keyspaces;
+    }
+
+    public boolean isAllowPartialResults() {
+        return allowPartialResults;
+    }
+
+    public void setAllowPartialResults(boolean allowPartialResults) {
+        this.allowPartialResults = allowPartialResults;
+    }
+
+    /**
+     * A single {@code bucket.scope.collection} target.
+     */
+    public static class Target {
+
+        /** Logical name used in status, metrics and bulkhead names. */
+        private String name;
+        private String bucket;
+        private String scope = "_default";
+        private String collection = "_default";
+
+        /** Per-keyspace timeout; falls back to {@code app.timeout.query}. */
+        private Duration timeout;
+
+        /** Per-keyspace bulkhead size. */
+        private int maxConcurrentCalls = 50;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public String getBucket() { return bucket; }
+        public void setBucket(String bucket) { this.bucket = bucket; }
+
+        public String getScope() { return scope; }
+        public void setScope(String scope) { this.scope = scope; }
+
+        public String getCollection() { return collection; }
+        public void setCollection(String collection) { this.collection = collection; }
+
+        public Duration getTimeout() { return timeout; }
+        public void setTimeout(Duration timeout) { this.timeout = timeout; }
+
+        public int getMaxConcurrentCalls() { return maxConcurrentCalls; }
+        public void setMaxConcurrentCalls(int maxConcurrentCalls) { this.maxConcurrentCalls = maxConcurrentCalls; }
+    }
+}
@@ -3,8 +3,10 @@ package com.github.vadivelmurugesan.couchbase.config;
 import com.couchbase.client.core.diagnostics.PingResult;
 import com.couchbase.client.core.diagnostics.PingState;
 import com.couchbase.client.java.Cluster;
+import com.github.vadivelmurugesan.couchbase.observability.BlockingCallEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -14,6 +16,7 @@ import java.util.Collection;
  * Detects Couchbase restarts/unhealthy states and triggers warm-up once recovered.
  */
 @Component
+@Profile("!local")
 public class CouchbaseMonitor {
 
     private static final Logger log = LoggerFactory.getLogger(CouchbaseMonitor.class);
@@ -31,7 +34,7 @@ public class CouchbaseMonitor {
     @Scheduled(fixedDelay = 5000)
     public void monitor() {
         try {
-            PingResult result = cluster.ping();
+            PingResult result = BlockingCallEvent.record("CouchbaseMonitor.ping", cluster::ping);
 
             boolean anyFailure = result.endpoints().values().stream()
                     .flatMap(Collection::stream)
@@ -0,0 +1,68 @@
+package com.github.vadivelmurugesan.couchbase.config;
+
+import com.github.vadivelmurugesan.couchbase.adapter.couchbase.QueryProfiler;
+import com.github.vadivelmurugesan.couchbase.domain.model.ApiError;
+import com.github.vadivelmurugesan.couchbase.domain.model.DocumentCriteria;
+import com.github.vadivelmurugesan.couchbase.domain.model.DocumentResponse;
+import com.github.vadivelmurugesan.couchbase.domain.model.KeyspaceStatus;
+import com.github.vadivelmurugesan.couchbase.domain.model.RowChange;
+import com.github.vadivelmurugesan.couchbase.domain.model.SearchResponse;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Reflection hints for the native image that Spring AOT cannot infer.
+ *
+ * <p>Request/response models are (de)serialized by Jackson, also through the
+ * Smile/CBOR codecs and the actuator endpoint, which AOT does not trace from
+ * controller signatures. Resilience4j binds its instance properties and
+ * loads {@code ignore-exceptions} classes by name.</p>
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    private static final List<Class<?>> BINDING_TYPES = List.of(
+            DocumentCriteria.class,
+            DocumentResponse.class,
+            SearchResponse.class,
+            KeyspaceStatus.class,
+            RowChange.class,
+            ApiError.class,
+            QueryProfiler.ShapeSnapshot.class,
+            QueryProfiler.SlowQuery.class
+    );
+
+    private static final List<String> RESILIENCE4J_TYPES = List.of(
+            "io.github.resilience4j.common.circuitbreaker.configuration.CommonCircuitBreakerConfigurationProperties$InstanceProperties",
+            "io.github.resilience4j.common.bulkhead.configuration.CommonBulkheadConfigurationProperties$InstanceProperties",
+            "io.github.resilience4j.common.bulkhead.configuration.CommonThreadPoolBulkheadConfigurationProperties$InstanceProperties",
+            "io.github.resilience4j.spring6.bulkhead.configure.BulkheadAspect",
+            "io.github.resilience4j.spring6.bulkhead.configure.ReactorBulkheadAspectExt",
+            "io.github.resilience4j.bulkhead.annotation.Bulkhead",
+            "io.github.resilience4j.bulkhead.BulkheadFullException",
+            "io.github.resilience4j.circuitbreaker.CallNotPermittedException"
+    );
+
+    /** Matches {@code resilience4j.circuitbreaker.configs.queryShape.ignore-exceptions}. */
+    private static final List<String> IGNORED_EXCEPTIONS = List.of(
+            "com.couchbase.client.core.error.TemporaryFailureException",
+            "com.couchbase.client.core.error.IndexFailureException",
+            "com.couchbase.client.core.error.PlanningFailureException"
+    );
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar()
+                .registerReflectionHints(hints.reflection(), BINDING_TYPES.toArray(Class<?>[]::new));
+
+        RESILIENCE4J_TYPES.forEach(type -> hints.reflection()
+                .registerType(TypeReference.of(type), MemberCategory.values()));
+
+        IGNORED_EXCEPTIONS.forEach(type -> hints.reflection()
+                .registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS));
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.vadivelmurugesan.couchbase.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Sampled query profiling configuration.
+ */
+@ConfigurationProperties(prefix = "app.query.profile")
+public class QueryProfileProperties {
+
+    /**
+     * Profile 1 in N queries at random; 0 or less disables random sampling.
+     */
+    private int sampleRate = 1000;
+
+    /**
+     * Queries at least this slow are kept in the slow-query log and
+     * cause the next queries of the same shape to be profiled.
+     */
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    /**
+     * Number of queries of a shape profiled after it was seen slow.
+     */
+    private int profileAfterSlow = 10;
+
+    /**
+     * Maximum number of shapes with aggregated timings.
+     */
+    private int maxShapes = 64;
+
+    /**
+     * Capacity of the slow-query ring buffer.
+     */
+    private int slowLogSize = 100;
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public Duration getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    public void setSlowThreshold(Duration slowThreshold) {
+        this.slowThreshold = slowThreshold;
+    }
+
+    public int getProfileAfterSlow() {
+        return profileAfterSlow;
+    }
+
+    public void setProfileAfterSlow(int profileAfterSlow) {
+        this.profileAfterSlow = profileAfterSlow;
+    }
+
+    public int getMaxShapes() {
+        return maxShapes;
+    }
+
+    public void setMaxShapes(int maxShapes) {
+        this.maxShapes = maxShapes;
+    }
+
+    public int getSlowLogSize() {
+        return slowLogSize;
+    }
+
+    public void setSlowLogSize(int slowLogSize) {
+        this.slowLogSize = slowLogSize;
+    }
+}
@@ -0,0 +1,117 @@
+package com.github.vadivelmurugesan.couchbase.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Per-client, cost-weighted rate limit configuration.
+ * Costs are in units of one cheap query (see {@code QueryCost}).
+ */
+@ConfigurationProperties(prefix = "app.ratelimit")
+public class RateLimitProperties {
+
+    /**
+     * Burst size per client, in cost units.
+     */
+    private int capacity = 200;
+
+    /**
+     * Sustained cost units per second per client.
+     */
+    private int refillPerSecond = 100;
+
+    /**
+     * Header identifying the client; the remote address is used when absent.
+     * Must be set (or stripped) by a trusted gateway: a caller rotating it gets a fresh
+     * bucket each time, bounded only by the global limit.
+     */
+    private String clientHeader = "X-Client-Id";
+
+    /**
+     * Burst across all clients, in cost units.
+     */
+    private int globalCapacity = 2_000;
+
+    /**
+     * Sustained cost units per second across all clients.
+     */
+    private int globalRefillPerSecond = 1_000;
+
+    /**
+     * Maximum number of per-client buckets kept.
+     */
+    private int maxClients = 10_000;
+
+    /**
+     * Shared buckets for clients beyond {@code maxClients}, picked by hash.
+     */
+    private int overflowStripes = 64;
+
+    /**
+     * Maximum number of clients with their own rejection metric; the rest report as "other".
+     */
+    private int maxTaggedClients = 1_000;
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getRefillPerSecond() {
+        return refillPerSecond;
+    }
+
+    public void setRefillPerSecond(int refillPerSecond) {
+        this.refillPerSecond = refillPerSecond;
+    }
+
+    public String getClientHeader() {
+        return clientHeader;
+    }
+
+    public void setClientHeader(String clientHeader) {
+        this.clientHeader = clientHeader;
+    }
+
+    public int getGlobalCapacity() {
+        return globalCapacity;
+    }
+
+    public void setGlobalCapacity(int globalCapacity) {
+        this.globalCapacity = globalCapacity;
+    }
+
+    public int getGlobalRefillPerSecond() {
+        return globalRefillPerSecond;
+    }
+
+    public void setGlobalRefillPerSecond(int globalRefillPerSecond) {
+        this.globalRefillPerSecond = globalRefillPerSecond;
+    }
+
+    public int getMaxClients() {
+        return maxClients;
+    }
+
+    public void setMaxClients(int maxClients) {
+        this.maxClients = maxClients;
+    }
+
+    public int getOverflowStripes() {
+        return overflowStripes;
+    }
+
+    public void setOverflowStripes(int overflowStripes) {
+        this.overflowStripes = overflowStripes;
+    }
+
+    public int getMaxTaggedClients() {
+        return maxTaggedClients;
+    }
+
+    public void setMaxTaggedClients(int maxTaggedClients) {
+        this.maxTaggedClients = maxTaggedClients;
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.vadivelmurugesan.couchbase.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Live query subscription configuration.
+ *
+ * <p>Each distinct criteria is re-evaluated once for all of its subscribers,
+ * every {@code minInterval} while its results change, backing off by doubling
+ * up to {@code maxInterval} while they do not.</p>
+ */
+@ConfigurationProperties(prefix = "app.subscription")
+public class SubscriptionProperties {
+
+    /**
+     * Refresh interval right after a change.
+     */
+    private Duration minInterval = Duration.ofSeconds(1);
+
+    /**
+     * Refresh interval ceiling for quiet or failing queries.
+     */
+    private Duration maxInterval = Duration.ofSeconds(30);
+
+    /**
+     * Maximum number of distinct live queries.
+     */
+    private int maxQueries = 256;
+
+    /**
+     * Maximum number of open subscriptions per client, identified as for rate limiting.
+     */
+    private int maxPerClient = 16;
+
+    /**
+     * Changes buffered per subscriber; a subscriber that falls further behind is disconnected.
+     */
+    private int subscriberBuffer = 256;
+
+    /**
+     * Interval of SSE keep-alive comments.
+     */
+    private Duration heartbeat = Duration.ofSeconds(15);
+
+    public Duration getMinInterval() {
+        return minInterval;
+    }
+
+    public void setMinInterval(Duration minInterval) {
+        this.minInterval = minInterval;
+    }
+
+    public Duration getMaxInterval() {
+        return maxInterval;
+    }
+
+    public void setMaxInterval(Duration maxInterval) {
+        this.maxInterval = maxInterval;
+    }
+
+    public int getMaxQueries() {
+        return maxQueries;
+    }
+
+    public void setMaxQueries(int maxQueries) {
+        this.maxQueries = maxQueries;
+    }
+
+    public int getMaxPerClient() {
+        return maxPerClient;
+    }
+
+    public void setMaxPerClient(int maxPerClient) {
+        this.maxPerClient = maxPerClient;
+    }
+
+    public int getSubscriberBuffer() {
+        return subscriberBuffer;
+    }
+
+    public void setSubscriberBuffer(int subscriberBuffer) {
+        this.subscriberBuffer = subscriberBuffer;
+    }
+
+    public Duration getHeartbeat() {
+        return heartbeat;
+    }
+
+    public void setHeartbeat(Duration heartbeat) {
+        this.heartbeat = heartbeat;
+    }
+}
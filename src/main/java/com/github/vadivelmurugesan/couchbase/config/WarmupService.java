@@ -1,7 +1,9 @@
 package com.github.vadivelmurugesan.couchbase.config;
 
 import com.github.vadivelmurugesan.couchbase.domain.DocumentQueryPort;
+import com.github.vadivelmurugesan.couchbase.domain.model.Deadline;
 import com.github.vadivelmurugesan.couchbase.domain.model.DocumentCriteria;
+import com.github.vadivelmurugesan.couchbase.observability.BlockingCallEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -16,9 +18,11 @@ public class WarmupService {
     private static final Logger log = LoggerFactory.getLogger(WarmupService.class);
 
     private final DocumentQueryPort port;
+    private final AppTimeoutProperties timeoutProperties;
 
-    public WarmupService(DocumentQueryPort port) {
+    public WarmupService(DocumentQueryPort port, AppTimeoutProperties timeoutProperties) {
         this.port = port;
+        this.timeoutProperties = timeoutProperties;
     }
 
     public void performWarmup() {
@@ -31,10 +35,11 @@ public class WarmupService {
 
         for (int i = 1; i <= 5; i++) {
             try {
-                port.findByCriteria(criteria)
-                        .take(1)
-                        .switchIfEmpty(Mono.empty())
-                        .blockLast();
+                BlockingCallEvent.record("WarmupService.blockLast", () ->
+                        port.findByCriteria(criteria, Deadline.after(timeoutProperties.getQuery()))
+                                .take(1)
+                                .switchIfEmpty(Mono.empty())
+                                .blockLast());
                 log.info("Warm-up iteration {} completed.", i);
             } catch (Exception e) {
                 log.warn("Warm-up iteration {} failed: {}", i, e.getMessage());
@@ -0,0 +1,24 @@
+package com.github.vadivelmurugesan.couchbase.domain;
+
+/**
+ * Thrown when a request's deadline has passed, or too little of it is left
+ * for a query attempt to be worth sending to the cluster.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    /** The client asked for less than the default budget. */
+    private final boolean shortBudget;
+
+    public DeadlineExceededException(String message) {
+        this(message, false);
+    }
+
+    public DeadlineExceededException(String message, boolean shortBudget) {
+        super(message);
+        this.shortBudget = shortBudget;
+    }
+
+    public boolean isShortBudget() {
+        return shortBudget;
+    }
+}
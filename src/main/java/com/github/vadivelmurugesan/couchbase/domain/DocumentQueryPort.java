@@ -1,8 +1,11 @@
 package com.github.vadivelmurugesan.couchbase.domain;
 
 import com.couchbase.client.java.json.JsonObject;
+import com.github.vadivelmurugesan.couchbase.domain.model.Deadline;
 import com.github.vadivelmurugesan.couchbase.domain.model.DocumentCriteria;
+import com.github.vadivelmurugesan.couchbase.domain.model.SearchResult;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Port for querying documents based on dynamic criteria.
@@ -11,10 +14,23 @@ public interface DocumentQueryPort {
 
     /**
      * Execute a dynamic query based on the given criteria.
+     * When partial results are allowed, rows of failed keyspaces are silently missing;
+     * use {@link #findWithStatus(DocumentCriteria, Deadline)} to detect that.
      *
      * @param criteria dynamic filter criteria
+     * @param deadline end-to-end request deadline; attempts only use the time left
      * @return a Flux of JsonObject rows (each row representing a document)
      */
-    Flux<JsonObject> findByCriteria(DocumentCriteria criteria);
+    Flux<JsonObject> findByCriteria(DocumentCriteria criteria, Deadline deadline);
+
+    /**
+     * Same query as {@link #findByCriteria(DocumentCriteria, Deadline)}, collected together
+     * with the status of every keyspace that took part in it.
+     *
+     * @param criteria dynamic filter criteria
+     * @param deadline end-to-end request deadline; attempts only use the time left
+     * @return merged rows and per-keyspace status
+     */
+    Mono<SearchResult> findWithStatus(DocumentCriteria criteria, Deadline deadline);
 }
 
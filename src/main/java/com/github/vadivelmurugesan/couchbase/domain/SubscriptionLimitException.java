@@ -0,0 +1,26 @@
+package com.github.vadivelmurugesan.couchbase.domain;
+
+/**
+ * Thrown when a new live query would exceed the configured number of distinct
+ * subscriptions, or a client its number of open subscriptions.
+ */
+public class SubscriptionLimitException extends RuntimeException {
+
+    private final boolean perClient;
+
+    public SubscriptionLimitException(String message) {
+        this(message, false);
+    }
+
+    public SubscriptionLimitException(String message, boolean perClient) {
+        super(message);
+        this.perClient = perClient;
+    }
+
+    /**
+     * Whether the client's own limit was hit rather than the server-wide one.
+     */
+    public boolean isPerClient() {
+        return perClient;
+    }
+}
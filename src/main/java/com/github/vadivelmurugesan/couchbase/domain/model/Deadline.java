@@ -0,0 +1,27 @@
+package com.github.vadivelmurugesan.couchbase.domain.model;
+
+import java.time.Duration;
+
+/**
+ * End-to-end request deadline on the monotonic clock.
+ * Every downstream attempt is given only the time that is left.
+ *
+ * @param expiresAtNanos {@link System#nanoTime()} at which the request is abandoned
+ * @param budget         time budget the deadline was created with
+ */
+public record Deadline(long expiresAtNanos, Duration budget) {
+
+    /** Deadline that expires {@code budget} from now. */
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos(), budget);
+    }
+
+    /** Time left, never negative. */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, expiresAtNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.vadivelmurugesan.couchbase.domain.model;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * Dynamic criteria for querying documents.
@@ -8,6 +9,9 @@ import java.util.List;
  */
 public final class DocumentCriteria {
 
+    /** Projected row fields that results may be ordered by. */
+    public static final Set<String> SORTABLE_FIELDS = Set.of("id", "type", "name", "age");
+
     private String type;
     private String name;
     private Integer minAge;
@@ -18,6 +22,10 @@ public final class DocumentCriteria {
     private String attrKey;
     private String attrValue;
 
+    // Optional ordering: one of SORTABLE_FIELDS, ASC (default) or DESC
+    private String orderBy;
+    private String orderDirection;
+
     public String getType() { return type; }
     public DocumentCriteria setType(String type) { this.type = type; return this; }
 
@@ -38,4 +46,13 @@ public final class DocumentCriteria {
 
     public String getAttrValue() { return attrValue; }
     public DocumentCriteria setAttrValue(String attrValue) { this.attrValue = attrValue; return this; }
+
+    public String getOrderBy() { return orderBy; }
+    public DocumentCriteria setOrderBy(String orderBy) { this.orderBy = orderBy; return this; }
+
+    public String getOrderDirection() { return orderDirection; }
+    public DocumentCriteria setOrderDirection(String orderDirection) { this.orderDirection = orderDirection; return this; }
+
+    public boolean isOrdered() { return orderBy != null; }
+    public boolean isDescending() { return "DESC".equalsIgnoreCase(orderDirection); }
 }
@@ -0,0 +1,17 @@
+package com.github.vadivelmurugesan.couchbase.domain.model;
+
+/**
+ * Outcome of one keyspace in a scatter-gather query.
+ *
+ * @param keyspace  logical keyspace name
+ * @param state     OK, CANCELLED (result limit reached), TIMEOUT, REJECTED (bulkhead full) or FAILED
+ * @param rows      rows emitted by this keyspace
+ * @param elapsedMs wall time spent on this keyspace
+ * @param error     error summary, null unless failed
+ */
+public record KeyspaceStatus(String keyspace, String state, long rows, long elapsedMs, String error) {
+
+    public boolean isFailure() {
+        return !"OK".equals(state) && !"CANCELLED".equals(state);
+    }
+}
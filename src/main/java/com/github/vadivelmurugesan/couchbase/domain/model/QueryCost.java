@@ -0,0 +1,32 @@
+package com.github.vadivelmurugesan.couchbase.domain.model;
+
+/**
+ * Relative cost estimate of a query, in units of one indexed equality lookup.
+ * Array predicates (tags, attributes) fan out over index entries and cost more.
+ */
+public final class QueryCost {
+
+    private static final int BASE = 1;
+    private static final int TAGS = 2;
+    private static final int ATTRIBUTES = 3;
+    private static final int ORDERED = 1;
+
+    private QueryCost() {
+        // Utility class
+    }
+
+    public static int estimate(DocumentCriteria c) {
+        int cost = BASE;
+
+        if (c.getTags() != null && !c.getTags().isEmpty()) {
+            cost += TAGS;
+        }
+        if (c.getAttrKey() != null || c.getAttrValue() != null) {
+            cost += ATTRIBUTES;
+        }
+        if (c.isOrdered()) {
+            cost += ORDERED;
+        }
+        return cost;
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.vadivelmurugesan.couchbase.domain.model;
+
+import java.util.StringJoiner;
+
+/**
+ * Structural shape of a query: which predicates are present, not their values.
+ * Queries of the same shape share a statement and an index path.
+ *
+ * @param key stable shape key, e.g. {@code type_age_tags}
+ */
+public record QueryShape(String key) {
+
+    public static QueryShape of(DocumentCriteria c) {
+        StringJoiner key = new StringJoiner("_");
+
+        if (c.getType() != null) key.add("type");
+        if (c.getName() != null) key.add("name");
+        if (c.getMinAge() != null || c.getMaxAge() != null) key.add("age");
+        if (c.getTags() != null && !c.getTags().isEmpty()) key.add("tags");
+        if (c.getAttrKey() != null) key.add("attrKey");
+        if (c.getAttrValue() != null) key.add("attrValue");
+        if (c.isOrdered()) key.add("orderBy");
+
+        return new QueryShape(key.length() == 0 ? "all" : key.toString());
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+}
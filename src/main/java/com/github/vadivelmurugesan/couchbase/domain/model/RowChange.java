@@ -0,0 +1,10 @@
+package com.github.vadivelmurugesan.couchbase.domain.model;
+
+/**
+ * One change to a live query's result set, as pushed to subscribers.
+ *
+ * @param op  ADDED, CHANGED or REMOVED
+ * @param id  document id
+ * @param row current row, null when removed
+ */
+public record RowChange(String op, String id, DocumentResponse row) { }
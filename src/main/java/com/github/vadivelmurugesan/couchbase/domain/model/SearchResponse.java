@@ -0,0 +1,8 @@
+package com.github.vadivelmurugesan.couchbase.domain.model;
+
+import java.util.List;
+
+/**
+ * API response DTO for a search with per-keyspace status.
+ */
+public record SearchResponse(List<DocumentResponse> results, List<KeyspaceStatus> keyspaces, boolean partial) { }
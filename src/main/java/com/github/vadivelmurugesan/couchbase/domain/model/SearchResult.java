@@ -0,0 +1,15 @@
+package com.github.vadivelmurugesan.couchbase.domain.model;
+
+import com.couchbase.client.java.json.JsonObject;
+
+import java.util.List;
+
+/**
+ * Merged rows of a scatter-gather query plus per-keyspace status.
+ */
+public record SearchResult(List<JsonObject> rows, List<KeyspaceStatus> keyspaces) {
+
+    public boolean isPartial() {
+        return keyspaces.stream().anyMatch(KeyspaceStatus::isFailure);
+    }
+}
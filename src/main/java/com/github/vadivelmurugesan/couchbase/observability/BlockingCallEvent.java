@@ -0,0 +1,58 @@
+package com.github.vadivelmurugesan.couchbase.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.function.Supplier;
+
+/**
+ * JFR event for a known blocking call (e.g. {@code cluster.ping()}, {@code blockLast()}).
+ * These run on scheduler and startup threads; should one move onto a
+ * non-blocking reactor thread it is flagged and logged, with the stack trace
+ * recorded by JFR. Unknown blocking calls on event loops are caught by
+ * {@link EventLoopLagProbe}'s stall sampling.
+ */
+@Name("couchbase.BlockingCall")
+@Label("Blocking Call")
+@Category({"Couchbase", "Reactor"})
+@Description("Duration of a blocking call and whether it ran on a non-blocking reactor thread")
+public class BlockingCallEvent extends Event {
+
+    private static final Logger log = LoggerFactory.getLogger(BlockingCallEvent.class);
+
+    @Label("Call Site")
+    String callSite;
+
+    @Label("On Reactor Thread")
+    boolean onReactorThread;
+
+    /**
+     * Runs a blocking call, recording its duration and flagging reactor threads.
+     */
+    public static <T> T record(String callSite, Supplier<T> call) {
+        boolean onReactorThread = Schedulers.isInNonBlockingThread()
+                || Thread.currentThread().getName().startsWith("reactor-http");
+        if (onReactorThread) {
+            log.warn("Blocking call '{}' on reactor thread {}", callSite, Thread.currentThread().getName());
+        }
+
+        BlockingCallEvent e = new BlockingCallEvent();
+        e.begin();
+        try {
+            return call.get();
+        } finally {
+            e.end();
+            if (e.shouldCommit()) {
+                e.callSite = callSite;
+                e.onReactorThread = onReactorThread;
+                e.commit();
+            }
+        }
+    }
+}
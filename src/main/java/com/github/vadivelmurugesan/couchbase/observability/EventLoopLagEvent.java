@@ -0,0 +1,42 @@
+package com.github.vadivelmurugesan.couchbase.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for a Netty event loop that took too long to run a probe task,
+ * or that is still stuck and had its stack sampled.
+ */
+@Name("couchbase.EventLoopLag")
+@Label("Event Loop Lag")
+@Category({"Couchbase", "Reactor"})
+@Description("Scheduling delay of a probe task submitted to a server event loop")
+@StackTrace(false)
+public class EventLoopLagEvent extends Event {
+
+    @Label("Event Loop Thread")
+    String thread;
+
+    @Label("Lag")
+    @Timespan(Timespan.NANOSECONDS)
+    long lag;
+
+    @Label("Blocked At")
+    @Description("Top of the event loop thread's stack while it was stuck; null once the probe has run")
+    String blockedAt;
+
+    static void emit(String thread, long lagNanos, String blockedAt) {
+        EventLoopLagEvent e = new EventLoopLagEvent();
+        if (e.shouldCommit()) {
+            e.thread = thread;
+            e.lag = lagNanos;
+            e.blockedAt = blockedAt;
+            e.commit();
+        }
+    }
+}
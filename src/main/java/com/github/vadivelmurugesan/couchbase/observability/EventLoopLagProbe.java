@@ -0,0 +1,136 @@
+package com.github.vadivelmurugesan.couchbase.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpResources;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Periodically submits a no-op task to every server event loop and measures
+ * how long it waited to run. Lag means the loop was busy or blocked.
+ *
+ * <p>Every sample feeds the {@code reactor.eventloop.lag} timer; samples over
+ * the threshold also emit an {@link EventLoopLagEvent} and a warning.</p>
+ *
+ * <p>A probe still queued at the next tick, over the threshold, means the loop
+ * is stuck right now: its thread's stack is sampled and reported as the
+ * {@link EventLoopLagEvent#blockedAt blocking call site}, once per probe.</p>
+ */
+@Component
+public class EventLoopLagProbe {
+
+    private static final Logger log = LoggerFactory.getLogger(EventLoopLagProbe.class);
+
+    private static final String METRIC_LAG = "reactor.eventloop.lag";
+    private static final int STACK_DEPTH = 16;
+
+    private final MeterRegistry registry;
+    private final long thresholdNanos;
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /** Probe waiting to run, per loop. */
+    private final ConcurrentMap<EventExecutor, Probe> inFlight = new ConcurrentHashMap<>();
+    /** Thread behind each loop, learned from its first probe. */
+    private final ConcurrentMap<EventExecutor, Thread> threads = new ConcurrentHashMap<>();
+
+    public EventLoopLagProbe(
+            MeterRegistry registry,
+            @Value("${app.eventloop.lag-threshold:50ms}") Duration threshold
+    ) {
+        this.registry = Objects.requireNonNull(registry, "MeterRegistry must not be null");
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    @Scheduled(fixedDelayString = "${app.eventloop.probe-interval-ms:500}")
+    public void probe() {
+        // Spring Boot's Netty server uses the global reactor-netty loop resources
+        EventLoopGroup loops = HttpResources.get().onServer(true);
+        probe(loops);
+    }
+
+    void probe(Iterable<EventExecutor> loops) {
+        long now = System.nanoTime();
+        for (EventExecutor loop : loops) {
+            Probe pending = inFlight.get(loop);
+            if (pending != null) {
+                sampleIfStalled(loop, pending, now);
+                continue;
+            }
+            Probe probe = new Probe(loop, now);
+            inFlight.put(loop, probe);
+            loop.execute(probe);
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal Helpers
+    // ---------------------------------------------------------------------
+
+    private void sampleIfStalled(EventExecutor loop, Probe pending, long now) {
+        long lagNanos = now - pending.submittedNanos;
+        Thread thread = threads.get(loop);
+        if (pending.sampled || lagNanos < thresholdNanos || thread == null) {
+            return;
+        }
+        pending.sampled = true;
+
+        String blockedAt = Arrays.stream(thread.getStackTrace())
+                .limit(STACK_DEPTH)
+                .map(StackTraceElement::toString)
+                .collect(Collectors.joining("\n"));
+        if (inFlight.get(loop) != pending) {
+            return; // Ran while sampling: the stack shows a loop that has moved on
+        }
+        EventLoopLagEvent.emit(thread.getName(), lagNanos, blockedAt);
+        log.warn("Event loop {} stalled for {}ms, blocked at:\n{}",
+                thread.getName(), TimeUnit.NANOSECONDS.toMillis(lagNanos), blockedAt);
+    }
+
+    private void record(String thread, long lagNanos) {
+        timers.computeIfAbsent(thread, t -> Timer.builder(METRIC_LAG)
+                        .description("Scheduling delay of a probe task on a server event loop")
+                        .tag("thread", t)
+                        .register(registry))
+                .record(lagNanos, TimeUnit.NANOSECONDS);
+
+        if (lagNanos >= thresholdNanos) {
+            EventLoopLagEvent.emit(thread, lagNanos, null);
+            log.warn("Event loop {} lagging: {}ms", thread, TimeUnit.NANOSECONDS.toMillis(lagNanos));
+        }
+    }
+
+    private final class Probe implements Runnable {
+
+        private final EventExecutor loop;
+        private final long submittedNanos;
+        /** Only touched by the scheduling thread. */
+        private boolean sampled;
+
+        Probe(EventExecutor loop, long submittedNanos) {
+            this.loop = loop;
+            this.submittedNanos = submittedNanos;
+        }
+
+        @Override
+        public void run() {
+            long lagNanos = System.nanoTime() - submittedNanos;
+            threads.putIfAbsent(loop, Thread.currentThread());
+            inFlight.remove(loop, this);
+            record(Thread.currentThread().getName(), lagNanos);
+        }
+    }
+}
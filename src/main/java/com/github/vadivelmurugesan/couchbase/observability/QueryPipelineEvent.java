@@ -0,0 +1,127 @@
+package com.github.vadivelmurugesan.couchbase.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * JFR event for one phase of the query pipeline: request, rateLimit,
+ * query, keyspace, bulkhead, attempt.
+ *
+ * <p>Spans the subscription of the traced publisher; when no recording
+ * has the event enabled the publisher is returned untouched.</p>
+ */
+@Name("couchbase.QueryPipeline")
+@Label("Query Pipeline Phase")
+@Category({"Couchbase", "Query"})
+@Description("Duration of one phase of a document query")
+@StackTrace(false)
+public class QueryPipelineEvent extends Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Shape")
+    String shape;
+
+    @Label("Detail")
+    @Description("Keyspace or attempt kind, where applicable")
+    String detail;
+
+    @Label("Attempt")
+    int attempt;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Traces a row stream as one phase event.
+     */
+    public static <T> Function<Flux<T>, Flux<T>> flux(String phase, String shape, String detail, int attempt) {
+        return source -> Flux.defer(() -> {
+            QueryPipelineEvent e = new QueryPipelineEvent();
+            if (!e.isEnabled()) {
+                return source;
+            }
+            e.init(phase, shape, detail, attempt);
+            return source
+                    .doOnNext(row -> e.rows++)
+                    .doFinally(signal -> e.finish(signal.toString()));
+        });
+    }
+
+    /**
+     * Traces a single-value result as one phase event.
+     */
+    public static <T> Function<Mono<T>, Mono<T>> mono(String phase, String shape, String detail) {
+        return source -> Mono.defer(() -> {
+            QueryPipelineEvent e = new QueryPipelineEvent();
+            if (!e.isEnabled()) {
+                return source;
+            }
+            e.init(phase, shape, detail, 0);
+            return source.doFinally(signal -> e.finish(signal.toString()));
+        });
+    }
+
+    /**
+     * Traces acquiring a permit through {@code operator} (e.g. a bulkhead) as one
+     * phase event, ending when the operator subscribes to the source
+     * ({@code acquired}) or fails without doing so (the error's simple name).
+     */
+    public static <T> Function<Flux<T>, Flux<T>> permit(
+            String phase, String shape, String detail, Function<? super Flux<T>, ? extends Publisher<T>> operator) {
+        return source -> Flux.defer(() -> {
+            QueryPipelineEvent e = new QueryPipelineEvent();
+            if (!e.isEnabled()) {
+                return Flux.from(operator.apply(source));
+            }
+            e.init(phase, shape, detail, 0);
+            AtomicBoolean decided = new AtomicBoolean();
+            Flux<T> permitted = source.doOnSubscribe(s -> {
+                if (decided.compareAndSet(false, true)) {
+                    e.finish("acquired");
+                }
+            });
+            return Flux.from(operator.apply(permitted))
+                    .doOnError(ex -> {
+                        if (decided.compareAndSet(false, true)) {
+                            e.finish(ex.getClass().getSimpleName());
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (decided.compareAndSet(false, true)) {
+                            e.finish("cancel");
+                        }
+                    });
+        });
+    }
+
+    private void init(String phase, String shape, String detail, int attempt) {
+        this.phase = phase;
+        this.shape = shape;
+        this.detail = detail;
+        this.attempt = attempt;
+        begin();
+    }
+
+    private void finish(String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
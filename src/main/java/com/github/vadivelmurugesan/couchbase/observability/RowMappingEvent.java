@@ -0,0 +1,60 @@
+package com.github.vadivelmurugesan.couchbase.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import reactor.core.publisher.Flux;
+
+import java.util.function.Function;
+
+/**
+ * JFR event with the total time spent mapping rows to responses for one request.
+ * Mapping is interleaved with row arrival, so it is summed rather than spanned.
+ */
+@Name("couchbase.RowMapping")
+@Label("Row Mapping")
+@Category({"Couchbase", "Query"})
+@Description("Time spent mapping Couchbase rows to API responses for one request")
+@StackTrace(false)
+public class RowMappingEvent extends Event {
+
+    @Label("Shape")
+    String shape;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Mapping Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long mappingTime;
+
+    /**
+     * Maps rows, summing the mapper's time into one event per subscription.
+     */
+    public static <T, R> Function<Flux<T>, Flux<R>> map(String shape, Function<T, R> mapper) {
+        return source -> Flux.defer(() -> {
+            RowMappingEvent e = new RowMappingEvent();
+            if (!e.isEnabled()) {
+                return source.map(mapper);
+            }
+            e.shape = shape;
+            return source
+                    .map(row -> {
+                        long start = System.nanoTime();
+                        R mapped = mapper.apply(row);
+                        e.mappingTime += System.nanoTime() - start;
+                        e.rows++;
+                        return mapped;
+                    })
+                    .doFinally(signal -> {
+                        if (e.shouldCommit()) {
+                            e.commit();
+                        }
+                    });
+        });
+    }
+}
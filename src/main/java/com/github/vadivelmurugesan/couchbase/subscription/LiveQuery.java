@@ -0,0 +1,278 @@
+package com.github.vadivelmurugesan.couchbase.subscription;
+
+import com.couchbase.client.java.json.JsonObject;
+import com.github.vadivelmurugesan.couchbase.domain.DocumentQueryPort;
+import com.github.vadivelmurugesan.couchbase.domain.model.Deadline;
+import com.github.vadivelmurugesan.couchbase.domain.model.DocumentCriteria;
+import com.github.vadivelmurugesan.couchbase.subscription.LiveQueryChange.Op;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One criteria re-evaluated on a schedule for all of its subscribers.
+ *
+ * <p>Each evaluation is diffed against the previous one by id and CAS and
+ * only the differences are pushed. The interval resets to {@code minInterval}
+ * when something changed and doubles up to {@code maxInterval} otherwise.
+ * New subscribers first receive the current rows as {@link Op#ADDED}.</p>
+ *
+ * <p>State changes happen under the monitor, which also queues what they
+ * emit; the queue is drained outside it by one thread at a time, so sinks
+ * are signalled serially, in state order, and downstream code never runs
+ * while the monitor is held.</p>
+ */
+final class LiveQuery {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveQuery.class);
+
+    private final DocumentCriteria criteria;
+    private final DocumentQueryPort port;
+    private final Duration queryTimeout;
+    private final Duration minInterval;
+    private final Duration maxInterval;
+
+    // Guarded by this
+    private final Set<Subscriber> subscribers = new LinkedHashSet<>();
+    private Map<String, JsonObject> rows = Map.of();
+    private Duration interval;
+    private Disposable task;
+    private boolean closed;
+
+    private final Queue<Emission> emissions = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    LiveQuery(DocumentCriteria criteria, DocumentQueryPort port, Duration queryTimeout,
+              Duration minInterval, Duration maxInterval) {
+        this.criteria = Objects.requireNonNull(criteria, "criteria must not be null");
+        this.port = Objects.requireNonNull(port, "DocumentQueryPort must not be null");
+        this.queryTimeout = queryTimeout;
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+        this.interval = minInterval;
+    }
+
+    void start() {
+        schedule(Duration.ZERO);
+    }
+
+    /**
+     * @return false if the query was closed concurrently; the caller should start a new one
+     */
+    boolean add(Subscriber s) {
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            List<LiveQueryChange> snapshot = new ArrayList<>(rows.size());
+            rows.forEach((id, row) -> snapshot.add(new LiveQueryChange(Op.ADDED, id, row)));
+            subscribers.add(s);
+            emissions.offer(new Emission(List.of(s), snapshot, false));
+        }
+        drain();
+        return true;
+    }
+
+    /**
+     * @return true if this was the last subscriber and the query is now closed
+     */
+    synchronized boolean remove(Subscriber s) {
+        subscribers.remove(s);
+        if (subscribers.isEmpty() && !closed) {
+            stop();
+            return true;
+        }
+        return false;
+    }
+
+    void close() {
+        synchronized (this) {
+            stop();
+            emissions.offer(new Emission(List.copyOf(subscribers), List.of(), true));
+            subscribers.clear();
+        }
+        drain();
+    }
+
+    synchronized int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // ---------------------------------------------------------------------
+    // Refresh
+    // ---------------------------------------------------------------------
+
+    private synchronized void schedule(Duration delay) {
+        if (closed) {
+            return;
+        }
+        task = Mono.delay(delay)
+                .then(Mono.defer(() -> port.findByCriteria(criteria, Deadline.after(queryTimeout)).collectList()))
+                .subscribe(this::apply, this::failed);
+    }
+
+    private void apply(List<JsonObject> result) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            Map<String, JsonObject> current = byId(result);
+            List<LiveQueryChange> changes = diff(rows, current);
+            rows = current;
+
+            if (!changes.isEmpty()) {
+                emissions.offer(new Emission(List.copyOf(subscribers), changes, false));
+            }
+            interval = changes.isEmpty() ? backoff(interval) : minInterval;
+            schedule(interval);
+        }
+        drain();
+    }
+
+    private synchronized void failed(Throwable t) {
+        interval = backoff(interval);
+        log.warn("Live query refresh failed, retrying in {}: {}", interval, t.toString());
+        schedule(interval);
+    }
+
+    // Guarded by this
+    private void stop() {
+        closed = true;
+        if (task != null) {
+            task.dispose();
+        }
+    }
+
+    private Duration backoff(Duration current) {
+        Duration next = current.multipliedBy(2);
+        return next.compareTo(maxInterval) > 0 ? maxInterval : next;
+    }
+
+    // ---------------------------------------------------------------------
+    // Emission
+    // ---------------------------------------------------------------------
+
+    /**
+     * Delivers queued emissions unless another thread already is; that thread
+     * picks up whatever is queued meanwhile, including from a reentrant call.
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            Emission e;
+            while ((e = emissions.poll()) != null) {
+                deliver(e);
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void deliver(Emission e) {
+        for (Subscriber s : e.targets()) {
+            if (e.complete()) {
+                s.complete();
+                continue;
+            }
+            for (LiveQueryChange change : e.changes()) {
+                if (!s.emit(change)) {
+                    // Buffer full or cancelled: stop feeding it; it unsubscribes as it terminates
+                    drop(s);
+                    s.complete();
+                    break;
+                }
+            }
+        }
+    }
+
+    private synchronized void drop(Subscriber s) {
+        subscribers.remove(s);
+    }
+
+    /** Changes for the subscribers registered when they were produced, or their completion. */
+    private record Emission(List<Subscriber> targets, List<LiveQueryChange> changes, boolean complete) { }
+
+    // ---------------------------------------------------------------------
+    // Diffing
+    // ---------------------------------------------------------------------
+
+    /**
+     * Rows removed, added, or whose CAS changed (the whole row when no CAS is projected).
+     */
+    static List<LiveQueryChange> diff(Map<String, JsonObject> previous, Map<String, JsonObject> current) {
+        List<LiveQueryChange> changes = new ArrayList<>();
+
+        previous.keySet().stream()
+                .filter(id -> !current.containsKey(id))
+                .forEach(id -> changes.add(new LiveQueryChange(Op.REMOVED, id, null)));
+
+        current.forEach((id, row) -> {
+            JsonObject old = previous.get(id);
+            if (old == null) {
+                changes.add(new LiveQueryChange(Op.ADDED, id, row));
+            } else if (!Objects.equals(version(old), version(row))) {
+                changes.add(new LiveQueryChange(Op.CHANGED, id, row));
+            }
+        });
+        return changes;
+    }
+
+    private static Object version(JsonObject row) {
+        Object cas = row.get("cas");
+        return cas != null ? cas : row;
+    }
+
+    /** Rows in result order; rows without an id cannot be tracked and are skipped. */
+    private static Map<String, JsonObject> byId(List<JsonObject> result) {
+        Map<String, JsonObject> out = new LinkedHashMap<>();
+        for (JsonObject row : result) {
+            if (row.get("id") instanceof String id) {
+                out.put(id, row);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * One subscriber's bounded change buffer. A subscriber that falls behind is
+     * completed; reconnecting resynchronises it from the current rows.
+     */
+    static final class Subscriber {
+
+        private final Sinks.Many<LiveQueryChange> sink;
+
+        Subscriber(int bufferSize) {
+            this.sink = Sinks.many().unicast().onBackpressureBuffer(Queues.<LiveQueryChange>get(bufferSize).get());
+        }
+
+        Flux<LiveQueryChange> asFlux() {
+            return sink.asFlux();
+        }
+
+        boolean emit(LiveQueryChange change) {
+            return sink.tryEmitNext(change).isSuccess();
+        }
+
+        void complete() {
+            sink.tryEmitComplete();
+        }
+    }
+}
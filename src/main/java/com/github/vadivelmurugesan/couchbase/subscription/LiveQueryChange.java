@@ -0,0 +1,15 @@
+package com.github.vadivelmurugesan.couchbase.subscription;
+
+import com.couchbase.client.java.json.JsonObject;
+
+/**
+ * One difference between two evaluations of a live query.
+ *
+ * @param op  kind of change
+ * @param id  document id
+ * @param row current projected row, null when removed
+ */
+public record LiveQueryChange(Op op, String id, JsonObject row) {
+
+    public enum Op { ADDED, CHANGED, REMOVED }
+}
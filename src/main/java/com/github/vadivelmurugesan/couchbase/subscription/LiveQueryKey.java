@@ -0,0 +1,31 @@
+package com.github.vadivelmurugesan.couchbase.subscription;
+
+import com.github.vadivelmurugesan.couchbase.domain.model.DocumentCriteria;
+
+import java.util.List;
+
+/**
+ * Value identity of a {@link DocumentCriteria}: subscriptions with equal keys
+ * share one live query. Tags are compared as a set since the query matches any of them.
+ */
+record LiveQueryKey(
+        String type,
+        String name,
+        Integer minAge,
+        Integer maxAge,
+        List<String> tags,
+        String attrKey,
+        String attrValue,
+        String orderBy,
+        boolean descending
+) {
+
+    static LiveQueryKey of(DocumentCriteria c) {
+        List<String> tags = c.getTags() == null || c.getTags().isEmpty()
+                ? null
+                : c.getTags().stream().distinct().sorted().toList();
+        return new LiveQueryKey(
+                c.getType(), c.getName(), c.getMinAge(), c.getMaxAge(), tags,
+                c.getAttrKey(), c.getAttrValue(), c.getOrderBy(), c.isOrdered() && c.isDescending());
+    }
+}
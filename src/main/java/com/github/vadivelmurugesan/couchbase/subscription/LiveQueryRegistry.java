@@ -0,0 +1,131 @@
+package com.github.vadivelmurugesan.couchbase.subscription;
+
+import com.github.vadivelmurugesan.couchbase.config.AppTimeoutProperties;
+import com.github.vadivelmurugesan.couchbase.config.SubscriptionProperties;
+import com.github.vadivelmurugesan.couchbase.domain.DocumentQueryPort;
+import com.github.vadivelmurugesan.couchbase.domain.SubscriptionLimitException;
+import com.github.vadivelmurugesan.couchbase.domain.model.DocumentCriteria;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Live query subscriptions.
+ *
+ * <p>Subscriptions with equal criteria ({@link LiveQueryKey}) share one
+ * {@link LiveQuery}, so N pollers of the same criteria cost one re-evaluation
+ * per refresh. A live query starts with its first subscriber and stops with its last.</p>
+ *
+ * <p>Each client may hold at most {@code maxPerClient} open subscriptions, so
+ * one client cannot take all {@code maxQueries} live queries.</p>
+ */
+@Component
+public class LiveQueryRegistry {
+
+    private final DocumentQueryPort port;
+    private final SubscriptionProperties properties;
+    private final AppTimeoutProperties timeoutProperties;
+
+    private final ConcurrentMap<LiveQueryKey, LiveQuery> queries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> perClient = new ConcurrentHashMap<>();
+
+    public LiveQueryRegistry(
+            DocumentQueryPort port,
+            SubscriptionProperties properties,
+            AppTimeoutProperties timeoutProperties,
+            MeterRegistry registry
+    ) {
+        this.port = Objects.requireNonNull(port, "DocumentQueryPort must not be null");
+        this.properties = Objects.requireNonNull(properties, "SubscriptionProperties must not be null");
+        this.timeoutProperties = Objects.requireNonNull(timeoutProperties, "AppTimeoutProperties must not be null");
+
+        Gauge.builder("subscription.queries", queries, ConcurrentMap::size)
+                .description("Distinct live queries being re-evaluated")
+                .register(registry);
+        Gauge.builder("subscription.subscribers", this, LiveQueryRegistry::subscriberCount)
+                .description("Open live query subscriptions")
+                .register(registry);
+    }
+
+    /**
+     * Current rows as {@link LiveQueryChange.Op#ADDED}, then changes as they are detected.
+     * Errors with {@link SubscriptionLimitException} when the client already holds
+     * {@code maxPerClient} subscriptions or a new live query would exceed {@code maxQueries}.
+     */
+    public Flux<LiveQueryChange> subscribe(DocumentCriteria c, String client) {
+        Objects.requireNonNull(c, "criteria must not be null");
+        Objects.requireNonNull(client, "client must not be null");
+        LiveQueryKey key = LiveQueryKey.of(c);
+
+        return Flux.defer(() -> {
+            acquire(client);
+            try {
+                LiveQuery.Subscriber s = new LiveQuery.Subscriber(properties.getSubscriberBuffer());
+                for (;;) {
+                    LiveQuery q = queries.computeIfAbsent(key, k -> newQuery(c));
+                    if (q.add(s)) {
+                        return s.asFlux().doFinally(signal -> {
+                            unsubscribe(key, q, s);
+                            release(client);
+                        });
+                    }
+                    // Closed by its last subscriber leaving; replace it
+                    queries.remove(key, q);
+                }
+            } catch (RuntimeException ex) {
+                release(client);
+                throw ex;
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        queries.values().forEach(LiveQuery::close);
+        queries.clear();
+    }
+
+    // ---------------------------------------------------------------------
+    // Internal Helpers
+    // ---------------------------------------------------------------------
+
+    private LiveQuery newQuery(DocumentCriteria c) {
+        if (queries.size() >= properties.getMaxQueries()) {
+            throw new SubscriptionLimitException(
+                    "Too many distinct subscriptions (max " + properties.getMaxQueries() + ")");
+        }
+        LiveQuery q = new LiveQuery(c, port, timeoutProperties.getQuery(),
+                properties.getMinInterval(), properties.getMaxInterval());
+        q.start();
+        return q;
+    }
+
+    private void acquire(String client) {
+        // Concurrent attempts may briefly overshoot and reject each other, never admit too many
+        if (perClient.merge(client, 1, Integer::sum) > properties.getMaxPerClient()) {
+            release(client);
+            throw new SubscriptionLimitException(
+                    "Too many subscriptions for this client (max " + properties.getMaxPerClient() + ")", true);
+        }
+    }
+
+    private void release(String client) {
+        perClient.computeIfPresent(client, (k, n) -> n > 1 ? n - 1 : null);
+    }
+
+    private void unsubscribe(LiveQueryKey key, LiveQuery q, LiveQuery.Subscriber s) {
+        if (q.remove(s)) {
+            queries.remove(key, q);
+        }
+    }
+
+    private int subscriberCount() {
+        return queries.values().stream().mapToInt(LiveQuery::subscriberCount).sum();
+    }
+}
@@ -0,0 +1,149 @@
+package com.github.vadivelmurugesan.couchbase.adapter.couchbase;
+
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.json.JsonObject;
+import com.github.vadivelmurugesan.couchbase.config.QueryProfileProperties;
+import com.github.vadivelmurugesan.couchbase.domain.model.QueryShape;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Profile text comes from the query service, so parsing must tolerate anything it sends.
+ */
+class QueryProfilerTest {
+
+    private static final QueryShape SHAPE = new QueryShape("type");
+
+    // ---------------------------------------------------------------------
+    // parseMicros
+    // ---------------------------------------------------------------------
+
+    @Test
+    void parsesSingleUnitDurations() {
+        assertThat(QueryProfiler.parseMicros("250ns")).isZero();
+        assertThat(QueryProfiler.parseMicros("1500ns")).isEqualTo(1);
+        assertThat(QueryProfiler.parseMicros("312.4µs")).isEqualTo(312);
+        assertThat(QueryProfiler.parseMicros("312.4μs")).isEqualTo(312); // Greek mu
+        assertThat(QueryProfiler.parseMicros("312us")).isEqualTo(312);
+        assertThat(QueryProfiler.parseMicros("1.5ms")).isEqualTo(1_500);
+        assertThat(QueryProfiler.parseMicros("2s")).isEqualTo(2_000_000);
+        assertThat(QueryProfiler.parseMicros("2h")).isEqualTo(7_200_000_000L);
+    }
+
+    @Test
+    void sumsCompoundDurations() {
+        assertThat(QueryProfiler.parseMicros("1m2.5s")).isEqualTo(62_500_000);
+        assertThat(QueryProfiler.parseMicros("1h1m1s")).isEqualTo(3_661_000_000L);
+    }
+
+    @Test
+    void anythingElseIsZero() {
+        assertThat(QueryProfiler.parseMicros(null)).isZero();
+        assertThat(QueryProfiler.parseMicros(42)).isZero();
+        assertThat(QueryProfiler.parseMicros("")).isZero();
+        assertThat(QueryProfiler.parseMicros("fast")).isZero();
+        assertThat(QueryProfiler.parseMicros("12")).isZero();
+    }
+
+    // ---------------------------------------------------------------------
+    // collectOperators
+    // ---------------------------------------------------------------------
+
+    @Test
+    void sumsOperatorTimesAcrossTheWholePlan() {
+        JsonObject plan = operator("Sequence", null, null).put("~children", JsonArray.from(
+                operator("IndexScan3", "1ms", "2ms").put("index", "idx_type"),
+                operator("Fetch", "500µs", "1.5ms"),
+                operator("Parallel", null, null).put("~child",
+                        operator("Sequence", null, null).put("~children", JsonArray.from(
+                                operator("Filter", "100µs", null),
+                                operator("Filter", "200µs", null),
+                                operator("IndexScan3", "1ms", null).put("index", "idx_type"))))));
+
+        Map<String, Long> micros = new HashMap<>();
+        List<String> indexes = new ArrayList<>();
+        QueryProfiler.collectOperators(plan, micros, indexes);
+
+        assertThat(micros).containsOnly(
+                Map.entry("IndexScan3", 4_000L),
+                Map.entry("Fetch", 2_000L),
+                Map.entry("Filter", 300L));
+        assertThat(indexes).containsExactly("idx_type");
+    }
+
+    @Test
+    void ignoresMalformedNodes() {
+        JsonObject plan = JsonObject.create()
+                .put("#operator", 7)
+                .put("#stats", JsonObject.create().put("execTime", "1ms"))
+                .put("~children", JsonArray.from(
+                        "not a node",
+                        JsonObject.create().put("#operator", "Fetch").put("#stats", "1ms"),
+                        JsonObject.create().put("#operator", "Filter").put("#stats",
+                                JsonObject.create().put("execTime", 5))));
+
+        Map<String, Long> micros = new HashMap<>();
+        List<String> indexes = new ArrayList<>();
+        QueryProfiler.collectOperators(plan, micros, indexes);
+        QueryProfiler.collectOperators(null, micros, indexes);
+
+        assertThat(micros).containsOnly(Map.entry("Filter", 0L));
+        assertThat(indexes).isEmpty();
+    }
+
+    // ---------------------------------------------------------------------
+    // Sampling
+    // ---------------------------------------------------------------------
+
+    @Test
+    void zeroSampleRateDisablesRandomSampling() {
+        QueryProfileProperties properties = new QueryProfileProperties();
+        properties.setSampleRate(0);
+        QueryProfiler profiler = new QueryProfiler(properties);
+
+        assertThat(IntStream.range(0, 1_000).anyMatch(i -> profiler.shouldProfile(SHAPE))).isFalse();
+    }
+
+    @Test
+    void slowShapesAreStillProfiledWithoutSampling() {
+        QueryProfileProperties properties = new QueryProfileProperties();
+        properties.setSampleRate(0);
+        properties.setProfileAfterSlow(2);
+        QueryProfiler profiler = new QueryProfiler(properties);
+
+        profiler.recordExecution(SHAPE, "SELECT 1", properties.getSlowThreshold().plus(Duration.ofMillis(1)), false);
+
+        assertThat(profiler.shouldProfile(SHAPE)).isTrue();
+        assertThat(profiler.shouldProfile(SHAPE)).isTrue();
+        assertThat(profiler.shouldProfile(SHAPE)).isFalse();
+    }
+
+    @Test
+    void sampleRateOfOneProfilesEverything() {
+        QueryProfileProperties properties = new QueryProfileProperties();
+        properties.setSampleRate(1);
+        QueryProfiler profiler = new QueryProfiler(properties);
+
+        assertThat(IntStream.range(0, 100).allMatch(i -> profiler.shouldProfile(SHAPE))).isTrue();
+    }
+
+    private static JsonObject operator(String name, String execTime, String servTime) {
+        JsonObject stats = JsonObject.create();
+        if (execTime != null) {
+            stats.put("execTime", execTime);
+        }
+        if (servTime != null) {
+            stats.put("servTime", servTime);
+        }
+        JsonObject op = JsonObject.create().put("#operator", name);
+        return execTime == null && servTime == null ? op : op.put("#stats", stats);
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.vadivelmurugesan.couchbase.adapter.couchbase;
+
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.json.JsonObject;
+import com.github.vadivelmurugesan.couchbase.domain.model.DocumentCriteria;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link RowComparator} must order rows exactly like the generated
+ * {@code ORDER BY d.<field> <dir>, META(d).id <dir>}, or the k-way merge interleaves wrongly.
+ */
+class RowComparatorTest {
+
+    private static final String KEYSPACE = "`b`.`s`.`c`";
+
+    @Test
+    void statementOrdersByFieldThenIdInTheSameDirection() {
+        assertThat(N1qlQueryBuilder.buildStatement(KEYSPACE, ordered("age", "ASC")))
+                .contains("ORDER BY d.age ASC, META(d).id ASC LIMIT");
+        assertThat(N1qlQueryBuilder.buildStatement(KEYSPACE, ordered("age", "DESC")))
+                .contains("ORDER BY d.age DESC, META(d).id DESC LIMIT");
+        assertThat(N1qlQueryBuilder.buildStatement(KEYSPACE, ordered("id", "DESC")))
+                .contains("ORDER BY META(d).id DESC LIMIT");
+    }
+
+    @Test
+    void ascendingFollowsSqlPlusPlusCollation() {
+        List<JsonObject> expected = collationOrder();
+
+        assertThat(sorted(expected, ordered("age", "ASC")))
+                .extracting(r -> r.getString("id"))
+                .containsExactlyElementsOf(ids(expected));
+    }
+
+    @Test
+    void descendingIsTheExactReverseIncludingIdTieBreak() {
+        List<JsonObject> expected = new ArrayList<>(collationOrder());
+        Collections.reverse(expected);
+
+        assertThat(sorted(expected, ordered("age", "DESC")))
+                .extracting(r -> r.getString("id"))
+                .containsExactlyElementsOf(ids(expected));
+    }
+
+    @Test
+    void directionDefaultsToAscending() {
+        List<JsonObject> expected = collationOrder();
+
+        assertThat(sorted(expected, ordered("age", null)))
+                .extracting(r -> r.getString("id"))
+                .containsExactlyElementsOf(ids(expected));
+    }
+
+    @Test
+    void stringsCompareByCodePoint() {
+        // U+FF21 (BMP) sorts before U+1F600 by code point, but after its surrogate pair in UTF-16
+        JsonObject bmp = JsonObject.create().put("id", "a").put("name", "Ａ");
+        JsonObject supplementary = JsonObject.create().put("id", "b").put("name", "😀");
+
+        assertThat(RowComparator.of(ordered("name", "ASC")).compare(bmp, supplementary)).isNegative();
+    }
+
+    // ---------------------------------------------------------------------
+    // Fixtures
+    // ---------------------------------------------------------------------
+
+    /** missing < null < false < true < number < string < array < object; equal values by id. */
+    private static List<JsonObject> collationOrder() {
+        return List.of(
+                JsonObject.create().put("id", "m1"),
+                JsonObject.create().put("id", "m2"),
+                JsonObject.create().put("id", "n1").putNull("age"),
+                JsonObject.create().put("id", "f1").put("age", false),
+                JsonObject.create().put("id", "t1").put("age", true),
+                JsonObject.create().put("id", "d1").put("age", -1.5),
+                JsonObject.create().put("id", "d2").put("age", 7),
+                JsonObject.create().put("id", "d3").put("age", 7.0),
+                JsonObject.create().put("id", "d4").put("age", 30),
+                JsonObject.create().put("id", "s1").put("age", "10"),
+                JsonObject.create().put("id", "a1").put("age", JsonArray.from(1)),
+                JsonObject.create().put("id", "o1").put("age", JsonObject.create()));
+    }
+
+    private static List<JsonObject> sorted(List<JsonObject> rows, DocumentCriteria c) {
+        List<JsonObject> shuffled = new ArrayList<>(rows);
+        Collections.shuffle(shuffled, new Random(42));
+        shuffled.sort(RowComparator.of(c));
+        return shuffled;
+    }
+
+    private static List<String> ids(List<JsonObject> rows) {
+        return rows.stream().map(r -> r.getString("id")).toList();
+    }
+
+    private static DocumentCriteria ordered(String field, String direction) {
+        return new DocumentCriteria().setType("user").setOrderBy(field).setOrderDirection(direction);
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.vadivelmurugesan.couchbase.adapter.couchbase;
+
+import com.github.vadivelmurugesan.couchbase.domain.DeadlineExceededException;
+import com.github.vadivelmurugesan.couchbase.domain.model.QueryShape;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.ConfigurationNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link ShapeCircuitBreakers}: per-shape isolation and the overflow breaker.
+ */
+class ShapeCircuitBreakersTest {
+
+    private static final int WINDOW = 4;
+
+    private final CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(Map.of("queryShape",
+            CircuitBreakerConfig.custom()
+                    .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                    .slidingWindowSize(WINDOW)
+                    .minimumNumberOfCalls(WINDOW)
+                    .failureRateThreshold(50)
+                    .build()));
+
+    @Test
+    void trippingOneShapeLeavesOthersClosed() {
+        ShapeCircuitBreakers breakers = breakers(8);
+        CircuitBreaker failing = breakers.forShape(new QueryShape("type_tags"));
+        CircuitBreaker healthy = breakers.forShape(new QueryShape("type_name"));
+
+        trip(failing);
+
+        assertThat(failing.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(healthy.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(healthy.tryAcquirePermission()).isTrue();
+        // Later lookups of either shape return the same breaker
+        assertThat(breakers.forShape(new QueryShape("type_tags"))).isSameAs(failing);
+        assertThat(breakers.forShape(new QueryShape("type_name")).getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void breakersAreRegisteredUnderTheShapeKey() {
+        ShapeCircuitBreakers breakers = breakers(8);
+
+        CircuitBreaker cb = breakers.forShape(new QueryShape("type"));
+
+        assertThat(cb.getName()).isEqualTo(ShapeCircuitBreakers.NAME_PREFIX + "type");
+        assertThat(registry.getAllCircuitBreakers()).containsExactly(cb);
+    }
+
+    @Test
+    void shapesBeyondTheLimitShareTheOverflowBreaker() {
+        ShapeCircuitBreakers breakers = breakers(2);
+        CircuitBreaker first = breakers.forShape(new QueryShape("type"));
+        CircuitBreaker second = breakers.forShape(new QueryShape("name"));
+
+        CircuitBreaker third = breakers.forShape(new QueryShape("age"));
+        CircuitBreaker fourth = breakers.forShape(new QueryShape("tags"));
+
+        assertThat(third).isSameAs(fourth).isNotSameAs(first).isNotSameAs(second);
+        assertThat(third.getName()).isEqualTo(ShapeCircuitBreakers.NAME_PREFIX + "overflow");
+
+        // Overflow shapes trip together, without touching the shapes within the limit
+        trip(third);
+        assertThat(breakers.forShape(new QueryShape("tags")).getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(first.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(second.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breakers.forShape(new QueryShape("type"))).isSameAs(first);
+    }
+
+    @Test
+    void shortClientDeadlinesAreNotRecorded() {
+        CircuitBreaker cb = breakers(8).forShape(new QueryShape("type"));
+
+        for (int i = 0; i < WINDOW; i++) {
+            cb.onError(0, TimeUnit.NANOSECONDS, new DeadlineExceededException("short", true));
+        }
+        assertThat(cb.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(cb.getMetrics().getNumberOfFailedCalls()).isZero();
+
+        trip(cb, new DeadlineExceededException("default budget"));
+        assertThat(cb.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void unknownConfigIsRejected() {
+        assertThatThrownBy(() -> new ShapeCircuitBreakers(registry, "missing", 8))
+                .isInstanceOf(ConfigurationNotFoundException.class);
+    }
+
+    // ---------------------------------------------------------------------
+    // Fixtures
+    // ---------------------------------------------------------------------
+
+    private ShapeCircuitBreakers breakers(int maxShapes) {
+        return new ShapeCircuitBreakers(registry, "queryShape", maxShapes);
+    }
+
+    private static void trip(CircuitBreaker cb) {
+        trip(cb, new IllegalStateException("query failed"));
+    }
+
+    private static void trip(CircuitBreaker cb, Throwable failure) {
+        for (int i = 0; i < WINDOW; i++) {
+            cb.onError(0, TimeUnit.NANOSECONDS, failure);
+        }
+    }
+}
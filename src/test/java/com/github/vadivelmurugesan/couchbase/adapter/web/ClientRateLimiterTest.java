@@ -0,0 +1,187 @@
+package com.github.vadivelmurugesan.couchbase.adapter.web;
+
+import com.github.vadivelmurugesan.couchbase.config.RateLimitProperties;
+import com.github.vadivelmurugesan.couchbase.domain.model.ApiError;
+import com.github.vadivelmurugesan.couchbase.domain.model.DocumentCriteria;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link ClientRateLimiter}: GCRA bucket arithmetic on a synthetic clock and
+ * the rate-limit headers sent with admitted and rejected requests.
+ */
+class ClientRateLimiterTest {
+
+    private static final long INTERVAL = 10;
+    private static final long BURST = 10 * INTERVAL;
+
+    /** Cost 1: no array predicates, unordered. */
+    private static final DocumentCriteria CRITERIA = new DocumentCriteria().setType("user").setName("alice");
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+
+    // ---------------------------------------------------------------------
+    // GCRA bucket
+    // ---------------------------------------------------------------------
+
+    @Test
+    void burstIsAdmittedAtOnceThenRejected() {
+        ClientRateLimiter.GcraBucket bucket = new ClientRateLimiter.GcraBucket(0);
+
+        for (int i = 1; i <= 10; i++) {
+            assertThat(bucket.tryAcquire(0, INTERVAL, BURST)).isEqualTo(i * INTERVAL);
+        }
+        // Rejected with how long until one more interval fits
+        assertThat(bucket.tryAcquire(0, INTERVAL, BURST)).isEqualTo(-INTERVAL);
+        assertThat(bucket.tryAcquire(0, 3 * INTERVAL, BURST)).isEqualTo(-3 * INTERVAL);
+    }
+
+    @Test
+    void rejectionDoesNotCharge() {
+        ClientRateLimiter.GcraBucket bucket = new ClientRateLimiter.GcraBucket(0);
+        bucket.tryAcquire(0, BURST, BURST);
+
+        assertThat(bucket.tryAcquire(0, INTERVAL, BURST)).isNegative();
+        assertThat(bucket.tryAcquire(INTERVAL, INTERVAL, BURST)).isEqualTo(BURST);
+    }
+
+    @Test
+    void steadyRateIsSustainedIndefinitely() {
+        ClientRateLimiter.GcraBucket bucket = new ClientRateLimiter.GcraBucket(0);
+
+        for (long now = 0; now < 1_000 * INTERVAL; now += INTERVAL) {
+            assertThat(bucket.tryAcquire(now, INTERVAL, BURST)).isEqualTo(INTERVAL);
+        }
+    }
+
+    @Test
+    void fasterThanTheRateDrainsTheBurst() {
+        ClientRateLimiter.GcraBucket bucket = new ClientRateLimiter.GcraBucket(0);
+        int admitted = 0;
+        // Two requests per interval: the burst absorbs the excess, then half are rejected
+        for (long now = 0; now < 100 * INTERVAL; now += INTERVAL / 2) {
+            if (bucket.tryAcquire(now, INTERVAL, BURST) >= 0) {
+                admitted++;
+            }
+        }
+        assertThat(admitted).isBetween(100, 110);
+    }
+
+    @Test
+    void refundReturnsTheCharge() {
+        ClientRateLimiter.GcraBucket bucket = new ClientRateLimiter.GcraBucket(0);
+        bucket.tryAcquire(0, BURST, BURST);
+
+        bucket.refund(INTERVAL);
+        assertThat(bucket.tryAcquire(0, INTERVAL, BURST)).isEqualTo(BURST);
+        assertThat(bucket.tryAcquire(0, INTERVAL, BURST)).isNegative();
+    }
+
+    @Test
+    void bucketIsIdleOnceRefilled() {
+        ClientRateLimiter.GcraBucket bucket = new ClientRateLimiter.GcraBucket(0);
+        bucket.tryAcquire(0, 3 * INTERVAL, BURST);
+
+        assertThat(bucket.isIdle(2 * INTERVAL)).isFalse();
+        assertThat(bucket.isIdle(3 * INTERVAL)).isTrue();
+    }
+
+    // ---------------------------------------------------------------------
+    // Headers
+    // ---------------------------------------------------------------------
+
+    @Test
+    void headersTrackTheClientBudget() {
+        ClientRateLimiter limiter = limiter(3, 1, 100, 100);
+
+        for (int remaining = 2; remaining >= 0; remaining--) {
+            MockServerWebExchange exchange = exchange("a");
+            limiter.acquire(exchange, CRITERIA).block();
+
+            HttpHeaders headers = exchange.getResponse().getHeaders();
+            assertThat(headers.getFirst("X-RateLimit-Limit")).isEqualTo("3");
+            assertThat(headers.getFirst("X-RateLimit-Cost")).isEqualTo("1");
+            assertThat(headers.getFirst("X-RateLimit-Remaining")).isEqualTo(String.valueOf(remaining));
+            assertThat(headers.getFirst("X-RateLimit-Reset")).isEqualTo(String.valueOf(3 - remaining));
+        }
+
+        MockServerWebExchange rejected = exchange("a");
+        assertThatThrownBy(() -> limiter.acquire(rejected, CRITERIA).block())
+                .isInstanceOfSatisfying(RateLimitExceededException.class, ex -> assertThat(ex.getRetryAfter())
+                        .isPositive()
+                        .isLessThanOrEqualTo(Duration.ofSeconds(1)));
+        HttpHeaders headers = rejected.getResponse().getHeaders();
+        assertThat(headers.getFirst("X-RateLimit-Remaining")).isEqualTo("0");
+        assertThat(headers.getFirst("X-RateLimit-Reset")).isEqualTo("3");
+        assertThat(meters.get("search.ratelimit.rejected.count").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void globalRejectionRefundsTheClientAndStillSendsItsBudget() {
+        ClientRateLimiter limiter = limiter(3, 1, 1, 1);
+        limiter.acquire(exchange("a"), CRITERIA).block();
+
+        MockServerWebExchange rejected = exchange("b");
+        assertThatThrownBy(() -> limiter.acquire(rejected, CRITERIA).block())
+                .isInstanceOf(RateLimitExceededException.class)
+                .hasMessageContaining("busy");
+
+        // Client b was refunded: its full budget remains
+        HttpHeaders headers = rejected.getResponse().getHeaders();
+        assertThat(headers.getFirst("X-RateLimit-Limit")).isEqualTo("3");
+        assertThat(headers.getFirst("X-RateLimit-Remaining")).isEqualTo("3");
+        assertThat(headers.getFirst("X-RateLimit-Reset")).isEqualTo("0");
+        assertThat(meters.get("search.ratelimit.global_rejected.count").counter().count()).isEqualTo(1);
+        assertThat(meters.find("search.ratelimit.rejected.count").counter()).isNull();
+    }
+
+    @Test
+    void clientIdComesFromTheHeader() {
+        ClientRateLimiter limiter = limiter(3, 1, 100, 100);
+
+        assertThat(limiter.clientId(exchange(" a "))).isEqualTo("a");
+        assertThat(limiter.clientId(MockServerWebExchange.from(MockServerHttpRequest.post("/")))).isEqualTo("anonymous");
+    }
+
+    @Test
+    void retryAfterIsRoundedUpToWholeSeconds() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+        ResponseEntity<ApiError> response = handler
+                .handleRateLimit(new RateLimitExceededException("slow down", Duration.ofMillis(1_001)))
+                .block();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+
+        assertThat(handler.handleRateLimit(new RateLimitExceededException("slow down", Duration.ofNanos(1)))
+                .block().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+
+    // ---------------------------------------------------------------------
+    // Fixtures
+    // ---------------------------------------------------------------------
+
+    private ClientRateLimiter limiter(int capacity, int refillPerSecond, int globalCapacity, int globalRefillPerSecond) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setCapacity(capacity);
+        properties.setRefillPerSecond(refillPerSecond);
+        properties.setGlobalCapacity(globalCapacity);
+        properties.setGlobalRefillPerSecond(globalRefillPerSecond);
+        return new ClientRateLimiter(properties, meters);
+    }
+
+    private static MockServerWebExchange exchange(String client) {
+        return MockServerWebExchange.from(MockServerHttpRequest.post("/api/documents/search")
+                .header("X-Client-Id", client));
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.vadivelmurugesan.couchbase.adapter.web;
+
+import com.couchbase.client.java.json.JsonObject;
+import com.github.vadivelmurugesan.couchbase.adapter.local.LocalDocumentQueryPort;
+import com.github.vadivelmurugesan.couchbase.config.AppTimeoutProperties;
+import com.github.vadivelmurugesan.couchbase.config.RateLimitProperties;
+import com.github.vadivelmurugesan.couchbase.config.SubscriptionProperties;
+import com.github.vadivelmurugesan.couchbase.subscription.LiveQueryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Request deadlines: parsing of {@value DocumentQueryController#TIMEOUT_HEADER}
+ * and the status returned when the deadline runs out.
+ */
+class DocumentQueryControllerTest {
+
+    private static final String CRITERIA = "{\"type\":\"user\",\"name\":\"alice\"}";
+
+    private final AppTimeoutProperties timeouts = new AppTimeoutProperties();
+    private final LocalDocumentQueryPort port =
+            new LocalDocumentQueryPort(new ByteArrayResource("[]".getBytes(StandardCharsets.UTF_8)));
+    private final DocumentQueryController controller = controller();
+    private final WebTestClient client = WebTestClient.bindToController(controller)
+            .controllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+    // ---------------------------------------------------------------------
+    // Header parsing
+    // ---------------------------------------------------------------------
+
+    @Test
+    void missingOrBlankHeaderUsesTheDefaultBudget() {
+        assertThat(controller.deadline(null).budget()).isEqualTo(timeouts.getQuery());
+        assertThat(controller.deadline("").budget()).isEqualTo(timeouts.getQuery());
+        assertThat(controller.deadline("  ").budget()).isEqualTo(timeouts.getQuery());
+    }
+
+    @Test
+    void headerSetsTheBudget() {
+        assertThat(controller.deadline("250").budget()).isEqualTo(Duration.ofMillis(250));
+        assertThat(controller.deadline(" 250 ").budget()).isEqualTo(Duration.ofMillis(250));
+    }
+
+    @Test
+    void budgetIsCappedAtRequestMax() {
+        long aboveMax = timeouts.getRequestMax().toMillis() + 1;
+
+        assertThat(controller.deadline(String.valueOf(aboveMax)).budget()).isEqualTo(timeouts.getRequestMax());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"soon", "1.5", "-1"})
+    void invalidHeaderIsRejected(String header) {
+        assertThatThrownBy(() -> controller.deadline(header))
+                .isInstanceOf(InvalidCriteriaException.class)
+                .hasMessageContaining(DocumentQueryController.TIMEOUT_HEADER);
+    }
+
+    // ---------------------------------------------------------------------
+    // Status codes
+    // ---------------------------------------------------------------------
+
+    @ParameterizedTest
+    @ValueSource(strings = {"soon", "-1"})
+    void invalidHeaderIs400(String header) {
+        search(header)
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("INVALID_CRITERIA");
+    }
+
+    @Test
+    void expiredDeadlineIs504() {
+        search("0")
+                .expectStatus().isEqualTo(HttpStatus.GATEWAY_TIMEOUT)
+                .expectBody().jsonPath("$.error").isEqualTo("DEADLINE_EXCEEDED");
+    }
+
+    @Test
+    void requestWithinItsDeadlineSucceeds() {
+        port.upsert("user::0001", JsonObject.create().put("type", "user").put("name", "alice"));
+
+        search("1000")
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[0].id").isEqualTo("user::0001");
+    }
+
+    // ---------------------------------------------------------------------
+    // Fixtures
+    // ---------------------------------------------------------------------
+
+    private WebTestClient.ResponseSpec search(String timeoutHeader) {
+        return client.post().uri("/api/documents/search")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(DocumentQueryController.TIMEOUT_HEADER, timeoutHeader)
+                .bodyValue(CRITERIA)
+                .exchange();
+    }
+
+    private DocumentQueryController controller() {
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        SubscriptionProperties subscriptions = new SubscriptionProperties();
+        return new DocumentQueryController(
+                port,
+                new ClientRateLimiter(new RateLimitProperties(), meters),
+                new LiveQueryRegistry(port, subscriptions, timeouts, meters),
+                timeouts,
+                subscriptions);
+    }
+}
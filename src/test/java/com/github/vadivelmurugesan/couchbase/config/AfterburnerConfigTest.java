@@ -0,0 +1,28 @@
+package com.github.vadivelmurugesan.couchbase.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Afterburner is registered on the JVM and left out when the native AOT build disables it.
+ */
+class AfterburnerConfigTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(AfterburnerConfig.class);
+
+    @Test
+    void registeredOnTheJvm() {
+        runner.run(context -> assertThat(context).getBean(Module.class).isInstanceOf(AfterburnerModule.class));
+    }
+
+    @Test
+    void leftOutWhenDisabled() {
+        runner.withPropertyValues(AfterburnerConfig.ENABLED_PROPERTY + "=false")
+                .run(context -> assertThat(context).doesNotHaveBean(Module.class));
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.vadivelmurugesan.couchbase.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.vadivelmurugesan.couchbase.adapter.couchbase.N1qlQueryBuilder;
+import com.github.vadivelmurugesan.couchbase.domain.model.DocumentResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Smile/CBOR mappers: configured like the JSON one, without changing the shared builder,
+ * and smaller than JSON for the {@link N1qlQueryBuilder#RESULT_LIMIT}-row bodies /search returns.
+ */
+class BinaryCodecConfigTest {
+
+    private final Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+    private final BinaryCodecConfig config = new BinaryCodecConfig(builder);
+
+    @Test
+    void sharedBuilderStillBuildsJson() {
+        assertThat(builder.build().getFactory())
+                .isNotInstanceOf(SmileFactory.class)
+                .isNotInstanceOf(CBORFactory.class);
+    }
+
+    @Test
+    void binaryMappersUseTheirFormatAndTheBuilderSettings() {
+        assertThat(config.smileMapper().getFactory()).isInstanceOf(SmileFactory.class);
+        assertThat(config.cborMapper().getFactory()).isInstanceOf(CBORFactory.class);
+
+        // Jackson2ObjectMapperBuilder disables this; a bare ObjectMapper enables it
+        assertThat(config.smileMapper().isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)).isFalse();
+        assertThat(config.cborMapper().isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)).isFalse();
+    }
+
+    @Test
+    void binaryFormatsRoundTripAndAreSmallerThanJson() throws Exception {
+        List<DocumentResponse> rows = sampleRows(N1qlQueryBuilder.RESULT_LIMIT);
+        int jsonSize = builder.build().writeValueAsBytes(rows).length;
+
+        for (ObjectMapper mapper : List.of(config.smileMapper(), config.cborMapper())) {
+            byte[] encoded = mapper.writeValueAsBytes(rows);
+
+            assertThat(encoded.length).isLessThan(jsonSize);
+            assertThat(mapper.readValue(encoded, new TypeReference<List<DocumentResponse>>() { }))
+                    .usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(rows);
+        }
+    }
+
+    private static List<DocumentResponse> sampleRows(int count) {
+        List<DocumentResponse> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new DocumentResponse(
+                    "user::" + i,
+                    "user",
+                    "name-" + i,
+                    20 + i % 40,
+                    List.of("travel", i % 2 == 0 ? "sports" : "music")));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.vadivelmurugesan.couchbase.observability;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class BlockingCallEventTest {
+
+    private static final String EVENT = "couchbase.BlockingCall";
+
+    @Test
+    void recordsTheCallAndItsResult() throws Exception {
+        try (JfrEvents jfr = JfrEvents.record(EVENT)) {
+            assertThat(BlockingCallEvent.record("Test.call", () -> 42)).isEqualTo(42);
+
+            assertThat(jfr.stop(EVENT))
+                    .extracting(e -> e.getString("callSite"), e -> e.getBoolean("onReactorThread"))
+                    .containsExactly(tuple("Test.call", false));
+        }
+    }
+
+    @Test
+    void flagsCallsOnNonBlockingReactorThreads() throws Exception {
+        try (JfrEvents jfr = JfrEvents.record(EVENT)) {
+            Mono.fromSupplier(() -> BlockingCallEvent.record("Test.parallel", () -> 1))
+                    .subscribeOn(Schedulers.parallel())
+                    .block();
+
+            assertThat(jfr.stop(EVENT))
+                    .extracting(e -> e.getBoolean("onReactorThread"))
+                    .containsExactly(true);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.github.vadivelmurugesan.couchbase.observability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
+import jdk.jfr.consumer.RecordedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventLoopLagProbeTest {
+
+    private static final String EVENT = "couchbase.EventLoopLag";
+    private static final Duration THRESHOLD = Duration.ofMillis(20);
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private final EventLoopLagProbe probe = new EventLoopLagProbe(meters, THRESHOLD);
+    private final EventLoopGroup loop = new DefaultEventLoopGroup(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        loop.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    void idleLoopIsTimedWithoutEvents() throws Exception {
+        // Start the loop's thread first; that alone can take longer than the threshold
+        loop.submit(() -> { }).sync();
+
+        try (JfrEvents jfr = JfrEvents.record(EVENT)) {
+            probe.probe(loop);
+            await(() -> probeCount() == 1);
+
+            assertThat(jfr.stop(EVENT)).isEmpty();
+        }
+    }
+
+    @Test
+    void lagOverTheThresholdIsReported() throws Exception {
+        try (JfrEvents jfr = JfrEvents.record(EVENT)) {
+            loop.execute(() -> holdEventLoop(release));
+            probe.probe(loop);
+            Thread.sleep(THRESHOLD.multipliedBy(3).toMillis());
+            release.countDown();
+            await(() -> probeCount() == 1);
+
+            assertThat(meters.get("reactor.eventloop.lag").timer().max(TimeUnit.MILLISECONDS))
+                    .isGreaterThanOrEqualTo(THRESHOLD.toMillis());
+            List<RecordedEvent> events = jfr.stop(EVENT);
+            assertThat(events).hasSize(1);
+            assertThat(events.get(0).getDuration("lag")).isGreaterThanOrEqualTo(THRESHOLD);
+            assertThat(events.get(0).getString("blockedAt")).isNull();
+        }
+    }
+
+    @Test
+    void stuckLoopHasItsStackSampledOnce() throws Exception {
+        // The first probe teaches the probe which thread runs the loop
+        probe.probe(loop);
+        await(() -> probeCount() == 1);
+
+        try (JfrEvents jfr = JfrEvents.record(EVENT)) {
+            loop.execute(() -> holdEventLoop(release));
+            probe.probe(loop);
+            Thread.sleep(THRESHOLD.multipliedBy(3).toMillis());
+            probe.probe(loop);
+            probe.probe(loop);
+            release.countDown();
+            await(() -> probeCount() == 2);
+
+            List<String> sampled = jfr.stop(EVENT).stream()
+                    .map(e -> e.getString("blockedAt"))
+                    .filter(s -> s != null)
+                    .toList();
+            assertThat(sampled).hasSize(1);
+            assertThat(sampled.get(0)).contains("holdEventLoop");
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Fixtures
+    // ---------------------------------------------------------------------
+
+    private static void holdEventLoop(CountDownLatch release) {
+        try {
+            release.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long probeCount() {
+        var timer = meters.find("reactor.eventloop.lag").timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new AssertionError("Condition not met within " + TIMEOUT);
+            }
+            LockSupport.parkNanos(1_000_000);
+        }
+    }
+}
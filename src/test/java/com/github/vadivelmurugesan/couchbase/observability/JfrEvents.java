@@ -0,0 +1,49 @@
+package com.github.vadivelmurugesan.couchbase.observability;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * In-process JFR recording of the given event types, read back after stopping.
+ */
+final class JfrEvents implements AutoCloseable {
+
+    private final Recording recording = new Recording();
+
+    private JfrEvents(String... eventNames) {
+        for (String name : eventNames) {
+            recording.enable(name).withThreshold(Duration.ZERO);
+        }
+        recording.start();
+    }
+
+    static JfrEvents record(String... eventNames) {
+        return new JfrEvents(eventNames);
+    }
+
+    /** Stops the recording and returns its events named {@code eventName}, in commit order. */
+    List<RecordedEvent> stop(String eventName) throws IOException {
+        recording.stop();
+        Path file = Files.createTempFile("events", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().equals(eventName))
+                    .toList();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Override
+    public void close() {
+        recording.close();
+    }
+}
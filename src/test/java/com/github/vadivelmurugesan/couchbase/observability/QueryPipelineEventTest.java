@@ -0,0 +1,88 @@
+package com.github.vadivelmurugesan.couchbase.observability;
+
+import jdk.jfr.consumer.RecordedEvent;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class QueryPipelineEventTest {
+
+    private static final String EVENT = "couchbase.QueryPipeline";
+
+    @Test
+    void fluxPhaseRecordsRowsAndOutcome() throws Exception {
+        try (JfrEvents jfr = JfrEvents.record(EVENT)) {
+            Flux.just(1, 2, 3)
+                    .transform(QueryPipelineEvent.flux("keyspace", "type", "users", 2))
+                    .blockLast();
+
+            List<RecordedEvent> events = jfr.stop(EVENT);
+            assertThat(events).hasSize(1);
+            RecordedEvent e = events.get(0);
+            assertThat(e.getString("phase")).isEqualTo("keyspace");
+            assertThat(e.getString("shape")).isEqualTo("type");
+            assertThat(e.getString("detail")).isEqualTo("users");
+            assertThat(e.getInt("attempt")).isEqualTo(2);
+            assertThat(e.getLong("rows")).isEqualTo(3);
+            assertThat(e.getString("outcome")).isEqualTo("onComplete");
+        }
+    }
+
+    @Test
+    void monoPhaseRecordsErrors() throws Exception {
+        try (JfrEvents jfr = JfrEvents.record(EVENT)) {
+            Mono<Object> failing = Mono.error(new IllegalStateException("boom"))
+                    .transform(QueryPipelineEvent.mono("query", "type", null));
+            assertThatThrownBy(failing::block).isInstanceOf(IllegalStateException.class);
+
+            assertThat(jfr.stop(EVENT))
+                    .extracting(e -> e.getString("phase"), e -> e.getString("outcome"))
+                    .containsExactly(tuple("query", "onError"));
+        }
+    }
+
+    @Test
+    void permitEndsWhenTheOperatorSubscribes() throws Exception {
+        try (JfrEvents jfr = JfrEvents.record(EVENT)) {
+            List<Integer> rows = Flux.just(1, 2)
+                    .transform(QueryPipelineEvent.<Integer>permit("bulkhead", "type", "users", f -> f))
+                    .collectList()
+                    .block();
+
+            assertThat(rows).containsExactly(1, 2);
+            assertThat(jfr.stop(EVENT))
+                    .extracting(e -> e.getString("phase"), e -> e.getString("outcome"))
+                    .containsExactly(tuple("bulkhead", "acquired"));
+        }
+    }
+
+    @Test
+    void permitRecordsRejection() throws Exception {
+        try (JfrEvents jfr = JfrEvents.record(EVENT)) {
+            Flux<Integer> rejected = Flux.just(1)
+                    .transform(QueryPipelineEvent.<Integer>permit("bulkhead", "type", "users",
+                            f -> Flux.error(new IllegalStateException("full"))));
+            assertThatThrownBy(rejected::blockLast).hasMessage("full");
+
+            assertThat(jfr.stop(EVENT))
+                    .extracting(e -> e.getString("outcome"))
+                    .containsExactly("IllegalStateException");
+        }
+    }
+
+    @Test
+    void disabledEventLeavesThePublisherWorking() {
+        assertThat(Flux.just(1, 2)
+                .transform(QueryPipelineEvent.flux("query", "type", null, 0))
+                .transform(QueryPipelineEvent.<Integer>permit("bulkhead", "type", null, f -> f))
+                .collectList()
+                .block())
+                .containsExactly(1, 2);
+    }
+}
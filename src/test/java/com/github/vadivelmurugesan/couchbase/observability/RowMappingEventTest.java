@@ -0,0 +1,31 @@
+package com.github.vadivelmurugesan.couchbase.observability;
+
+import jdk.jfr.consumer.RecordedEvent;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RowMappingEventTest {
+
+    private static final String EVENT = "couchbase.RowMapping";
+
+    @Test
+    void oneEventPerSubscriptionWithRowCount() throws Exception {
+        try (JfrEvents jfr = JfrEvents.record(EVENT)) {
+            List<String> mapped = Flux.just(1, 2, 3)
+                    .transform(RowMappingEvent.map("type", String::valueOf))
+                    .collectList()
+                    .block();
+
+            assertThat(mapped).containsExactly("1", "2", "3");
+            List<RecordedEvent> events = jfr.stop(EVENT);
+            assertThat(events).hasSize(1);
+            assertThat(events.get(0).getString("shape")).isEqualTo("type");
+            assertThat(events.get(0).getLong("rows")).isEqualTo(3);
+            assertThat(events.get(0).getDuration("mappingTime")).isNotNegative();
+        }
+    }
+}
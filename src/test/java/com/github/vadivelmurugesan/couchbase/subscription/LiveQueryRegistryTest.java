@@ -0,0 +1,286 @@
+package com.github.vadivelmurugesan.couchbase.subscription;
+
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.json.JsonObject;
+import com.github.vadivelmurugesan.couchbase.adapter.local.LocalDocumentQueryPort;
+import com.github.vadivelmurugesan.couchbase.config.AppTimeoutProperties;
+import com.github.vadivelmurugesan.couchbase.config.SubscriptionProperties;
+import com.github.vadivelmurugesan.couchbase.domain.DocumentQueryPort;
+import com.github.vadivelmurugesan.couchbase.domain.SubscriptionLimitException;
+import com.github.vadivelmurugesan.couchbase.domain.model.Deadline;
+import com.github.vadivelmurugesan.couchbase.domain.model.DocumentCriteria;
+import com.github.vadivelmurugesan.couchbase.domain.model.SearchResult;
+import com.github.vadivelmurugesan.couchbase.subscription.LiveQueryChange.Op;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.core.io.ByteArrayResource;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * {@link LiveQueryRegistry} against the in-memory port: sharing, teardown and limits.
+ */
+class LiveQueryRegistryTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final LocalDocumentQueryPort local =
+            new LocalDocumentQueryPort(new ByteArrayResource("[]".getBytes(StandardCharsets.UTF_8)));
+    private final CountingPort port = new CountingPort(local);
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    private final SubscriptionProperties properties = new SubscriptionProperties();
+    private final List<Disposable> subscriptions = new CopyOnWriteArrayList<>();
+
+    private LiveQueryRegistry registry;
+
+    @AfterEach
+    void tearDown() {
+        subscriptions.forEach(Disposable::dispose);
+        if (registry != null) {
+            registry.close();
+        }
+    }
+
+    @Test
+    void equalCriteriaShareOneEvaluationWhateverTheTagOrder() {
+        properties.setMinInterval(Duration.ofHours(1));
+        properties.setMaxInterval(Duration.ofHours(1));
+        local.upsert("u1", user("alice").put("tags", JsonArray.from("a")));
+        registry = registry();
+
+        Recorder first = record(registry.subscribe(new DocumentCriteria().setTags(List.of("a", "b")), "c1"));
+        await(() -> first.received.size() == 1);
+        Recorder second = record(registry.subscribe(new DocumentCriteria().setTags(List.of("b", "a", "b")), "c2"));
+        await(() -> second.received.size() == 1);
+
+        assertThat(gauge("subscription.queries")).isEqualTo(1);
+        assertThat(gauge("subscription.subscribers")).isEqualTo(2);
+        assertThat(port.evaluations.get()).isEqualTo(1);
+        // The late subscriber got the rows from the shared evaluation as a snapshot
+        assertThat(second.received).extracting(LiveQueryChange::op, LiveQueryChange::id)
+                .containsExactly(tuple(Op.ADDED, "u1"));
+    }
+
+    @Test
+    void changesReachEverySubscriber() {
+        fastRefresh();
+        local.upsert("u1", user("alice"));
+        registry = registry();
+
+        Recorder first = record(registry.subscribe(users(), "c1"));
+        Recorder second = record(registry.subscribe(users(), "c2"));
+        await(() -> first.received.size() == 1 && second.received.size() == 1);
+
+        local.upsert("u1", user("alicia"));
+        await(() -> first.received.size() == 2 && second.received.size() == 2);
+        local.upsert("u2", user("bob"));
+        await(() -> first.received.size() == 3 && second.received.size() == 3);
+        local.remove("u2");
+        await(() -> first.received.size() == 4 && second.received.size() == 4);
+
+        assertThat(first.received).extracting(LiveQueryChange::op, LiveQueryChange::id)
+                .containsExactly(
+                        tuple(Op.ADDED, "u1"),
+                        tuple(Op.CHANGED, "u1"),
+                        tuple(Op.ADDED, "u2"),
+                        tuple(Op.REMOVED, "u2"));
+        assertThat(second.received).isEqualTo(first.received);
+    }
+
+    @Test
+    void queryStopsWhenItsLastSubscriberLeaves() throws InterruptedException {
+        fastRefresh();
+        registry = registry();
+
+        Recorder first = record(registry.subscribe(users(), "c1"));
+        Recorder second = record(registry.subscribe(users(), "c2"));
+        await(() -> port.evaluations.get() > 0);
+
+        first.dispose();
+        assertThat(gauge("subscription.queries")).isEqualTo(1);
+        assertThat(gauge("subscription.subscribers")).isEqualTo(1);
+
+        second.dispose();
+        assertThat(gauge("subscription.queries")).isZero();
+        assertThat(gauge("subscription.subscribers")).isZero();
+
+        int evaluations = port.evaluations.get();
+        Thread.sleep(properties.getMaxInterval().multipliedBy(3).toMillis());
+        assertThat(port.evaluations.get()).isLessThanOrEqualTo(evaluations + 1);
+    }
+
+    @Test
+    void distinctQueriesAreLimited() {
+        properties.setMaxQueries(1);
+        registry = registry();
+
+        record(registry.subscribe(users(), "c1"));
+        // Same criteria joins the existing query
+        record(registry.subscribe(users(), "c2"));
+
+        assertThatThrownBy(() -> registry.subscribe(new DocumentCriteria().setType("admin"), "c3").blockFirst(TIMEOUT))
+                .isInstanceOfSatisfying(SubscriptionLimitException.class, ex -> assertThat(ex.isPerClient()).isFalse());
+        assertThat(gauge("subscription.queries")).isEqualTo(1);
+    }
+
+    @Test
+    void subscriptionsPerClientAreLimited() {
+        properties.setMaxPerClient(1);
+        registry = registry();
+
+        Recorder held = record(registry.subscribe(users(), "c1"));
+
+        assertThatThrownBy(() -> registry.subscribe(users(), "c1").blockFirst(TIMEOUT))
+                .isInstanceOfSatisfying(SubscriptionLimitException.class, ex -> assertThat(ex.isPerClient()).isTrue());
+        record(registry.subscribe(users(), "c2"));
+
+        held.dispose();
+        record(registry.subscribe(users(), "c1"));
+        assertThat(gauge("subscription.subscribers")).isEqualTo(2);
+    }
+
+    @Test
+    void subscriberThatFallsBehindIsDisconnected() {
+        fastRefresh();
+        properties.setSubscriberBuffer(8);
+        local.upsert("u0", user("alice"));
+        registry = registry();
+
+        Recorder stalled = new Recorder(0);
+        registry.subscribe(users(), "c1").subscribe(stalled);
+        subscriptions.add(stalled);
+        Recorder healthy = record(registry.subscribe(users(), "c2"));
+        await(() -> healthy.received.size() == 1);
+
+        // Results are capped at RESULT_LIMIT rows, so overflow the buffer with
+        // CHANGED events: each write bumps the CAS, and waiting for the healthy
+        // subscriber to see it keeps writes from coalescing into one evaluation
+        int writes = 32;
+        for (int i = 0; i < writes; i++) {
+            local.upsert("u0", user("alice" + i));
+            int expected = i + 2;
+            await(() -> healthy.received.size() == expected);
+        }
+        await(() -> gauge("subscription.subscribers") == 1);
+
+        stalled.request(Long.MAX_VALUE);
+        await(stalled.completed::get);
+        assertThat(stalled.received).isNotEmpty().hasSizeLessThan(writes + 1);
+
+        // The live query keeps serving the remaining subscriber
+        assertThat(gauge("subscription.queries")).isEqualTo(1);
+        assertThat(healthy.completed).isFalse();
+        assertThat(healthy.received).extracting(LiveQueryChange::op)
+                .containsOnly(Op.ADDED, Op.CHANGED)
+                .filteredOn(op -> op == Op.CHANGED).hasSize(writes);
+    }
+
+    // ---------------------------------------------------------------------
+    // Fixtures
+    // ---------------------------------------------------------------------
+
+    private LiveQueryRegistry registry() {
+        return new LiveQueryRegistry(port, properties, new AppTimeoutProperties(), meters);
+    }
+
+    private void fastRefresh() {
+        properties.setMinInterval(Duration.ofMillis(10));
+        properties.setMaxInterval(Duration.ofMillis(40));
+    }
+
+    private double gauge(String name) {
+        return meters.get(name).gauge().value();
+    }
+
+    private Recorder record(Flux<LiveQueryChange> changes) {
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+        changes.subscribe(recorder);
+        subscriptions.add(recorder);
+        return recorder;
+    }
+
+    private static DocumentCriteria users() {
+        return new DocumentCriteria().setType("user");
+    }
+
+    private static JsonObject user(String name) {
+        return JsonObject.create().put("type", "user").put("name", name);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new AssertionError("Condition not met within " + TIMEOUT);
+            }
+            LockSupport.parkNanos(1_000_000);
+        }
+    }
+
+    /** Records changes, requesting {@code initialDemand} up front. */
+    private static final class Recorder extends BaseSubscriber<LiveQueryChange> {
+
+        final List<LiveQueryChange> received = new CopyOnWriteArrayList<>();
+        final AtomicBoolean completed = new AtomicBoolean();
+        private final long initialDemand;
+
+        Recorder(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            if (initialDemand > 0) {
+                request(initialDemand);
+            }
+        }
+
+        @Override
+        protected void hookOnNext(LiveQueryChange change) {
+            received.add(change);
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            completed.set(true);
+        }
+    }
+
+    /** Counts evaluations reaching the port. */
+    private static final class CountingPort implements DocumentQueryPort {
+
+        final AtomicInteger evaluations = new AtomicInteger();
+        private final DocumentQueryPort delegate;
+
+        CountingPort(DocumentQueryPort delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Flux<JsonObject> findByCriteria(DocumentCriteria criteria, Deadline deadline) {
+            return delegate.findByCriteria(criteria, deadline).doOnSubscribe(s -> evaluations.incrementAndGet());
+        }
+
+        @Override
+        public Mono<SearchResult> findWithStatus(DocumentCriteria criteria, Deadline deadline) {
+            return delegate.findWithStatus(criteria, deadline).doOnSubscribe(s -> evaluations.incrementAndGet());
+        }
+    }
+}
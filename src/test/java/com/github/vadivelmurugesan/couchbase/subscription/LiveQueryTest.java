@@ -0,0 +1,81 @@
+package com.github.vadivelmurugesan.couchbase.subscription;
+
+import com.couchbase.client.java.json.JsonObject;
+import com.github.vadivelmurugesan.couchbase.subscription.LiveQueryChange.Op;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * {@link LiveQuery#diff} decides what subscribers are sent between two evaluations.
+ */
+class LiveQueryTest {
+
+    @Test
+    void unchangedRowsProduceNoChanges() {
+        Map<String, JsonObject> rows = rows(row("a", 1), row("b", 2));
+
+        assertThat(LiveQuery.diff(rows, rows(row("a", 1), row("b", 2)))).isEmpty();
+    }
+
+    @Test
+    void newRowsAreAdded() {
+        assertThat(LiveQuery.diff(rows(row("a", 1)), rows(row("a", 1), row("b", 2))))
+                .extracting(LiveQueryChange::op, LiveQueryChange::id)
+                .containsExactly(tuple(Op.ADDED, "b"));
+    }
+
+    @Test
+    void rowsWithANewCasAreChanged() {
+        JsonObject updated = row("a", 2).put("name", "renamed");
+
+        assertThat(LiveQuery.diff(rows(row("a", 1)), rows(updated)))
+                .containsExactly(new LiveQueryChange(Op.CHANGED, "a", updated));
+    }
+
+    @Test
+    void casAloneDecidesWhetherARowChanged() {
+        JsonObject sameCas = row("a", 1).put("name", "renamed");
+
+        assertThat(LiveQuery.diff(rows(row("a", 1)), rows(sameCas))).isEmpty();
+    }
+
+    @Test
+    void rowsWithoutCasAreComparedWhole() {
+        JsonObject before = JsonObject.create().put("id", "a").put("name", "x");
+        JsonObject after = JsonObject.create().put("id", "a").put("name", "y");
+
+        assertThat(LiveQuery.diff(rows(before), rows(before))).isEmpty();
+        assertThat(LiveQuery.diff(rows(before), rows(after)))
+                .extracting(LiveQueryChange::op)
+                .containsExactly(Op.CHANGED);
+    }
+
+    @Test
+    void missingRowsAreRemovedFirst() {
+        assertThat(LiveQuery.diff(rows(row("a", 1), row("b", 2)), rows(row("b", 2), row("c", 3))))
+                .containsExactly(
+                        new LiveQueryChange(Op.REMOVED, "a", null),
+                        new LiveQueryChange(Op.ADDED, "c", row("c", 3)));
+    }
+
+    // ---------------------------------------------------------------------
+    // Fixtures
+    // ---------------------------------------------------------------------
+
+    private static JsonObject row(String id, long cas) {
+        return JsonObject.create().put("id", id).put("cas", cas);
+    }
+
+    private static Map<String, JsonObject> rows(JsonObject... rows) {
+        Map<String, JsonObject> out = new LinkedHashMap<>();
+        for (JsonObject row : rows) {
+            out.put(row.getString("id"), row);
+        }
+        return out;
+    }
+}